@@ -1,7 +1,11 @@
 package me.lauriichan.snowframe;
 
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
 import me.lauriichan.snowframe.config.ConfigManager;
 import me.lauriichan.snowframe.config.ConfigMigrator;
+import me.lauriichan.snowframe.config.ConfigWatcher;
 import me.lauriichan.snowframe.extension.Extension;
 import me.lauriichan.snowframe.lifecycle.Lifecycle;
 import me.lauriichan.snowframe.lifecycle.LifecycleBuilder;
@@ -10,9 +14,16 @@ import me.lauriichan.snowframe.lifecycle.LifecyclePhase.Stage;
 @Extension
 public class ConfigModule implements ISnowFrameModule {
 
+    private static final long DEFAULT_DEBOUNCE = 250L;
+
     private ConfigManager manager;
     private ConfigMigrator migrator;
 
+    private SnowFrame<?> snowFrame;
+    private volatile ConfigWatcher watcher;
+
+    private volatile boolean snapshotCache = false;
+
     @Override
     public void setupLifecycle(LifecycleBuilder<?> builder) {
         builder.startupChain().newPhaseAfter("io", "config", false).newPhaseAfter("config", "reload_config", false);
@@ -21,11 +32,15 @@ public class ConfigModule implements ISnowFrameModule {
     @Override
     public void registerLifecycle(Lifecycle<?> lifecycle) {
         lifecycle.startupChain().register("config", Stage.MAIN, (snowFrame) -> {
+            this.snowFrame = snowFrame;
             migrator = new ConfigMigrator(snowFrame);
             manager = new ConfigManager(snowFrame);
         }).register("reload_config", Stage.MAIN, (snowFrame) -> {
             manager.reload();
         });
+        lifecycle.shutdownChain().register("shutdown", Stage.PRE, (snowFrame) -> {
+            disableWatcher();
+        });
     }
 
     public ConfigManager manager() {
@@ -36,4 +51,63 @@ public class ConfigModule implements ISnowFrameModule {
         return migrator;
     }
 
+    public boolean snapshotCache() {
+        return snapshotCache;
+    }
+
+    /**
+     * Sets if configs should store a binary snapshot next to their source that
+     * is loaded instead of parsing the source on startup, has to be set before
+     * the configs are created to take effect for all of them
+     * 
+     * @param snapshotCache {@code true} if snapshots should be used
+     */
+    public void snapshotCache(final boolean snapshotCache) {
+        this.snapshotCache = snapshotCache;
+    }
+
+    public ConfigWatcher watcher() {
+        return watcher;
+    }
+
+    public ConfigWatcher enableWatcher() throws IOException {
+        return enableWatcher(DEFAULT_DEBOUNCE, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts watching the files of all configs and reloads a config in the
+     * background once its file changed, see {@link ConfigWatcher} for how
+     * reloaded configs are read safely
+     * 
+     * @param  debounce    the time to wait for further changes before a config is
+     *                         reloaded
+     * @param  unit        the unit of the debounce time
+     * 
+     * @return             the watcher
+     * 
+     * @throws IOException if the watch service couldn't be created
+     */
+    public synchronized ConfigWatcher enableWatcher(final long debounce, final TimeUnit unit) throws IOException {
+        if (manager == null) {
+            throw new IllegalStateException("Configs are not loaded yet");
+        }
+        ConfigWatcher current = watcher;
+        if (current != null) {
+            if (current.debounce(TimeUnit.NANOSECONDS) == unit.toNanos(debounce)) {
+                return current;
+            }
+            current.close();
+        }
+        return watcher = new ConfigWatcher(manager, snowFrame.logger(), debounce, unit);
+    }
+
+    public synchronized void disableWatcher() {
+        ConfigWatcher current = watcher;
+        if (current == null) {
+            return;
+        }
+        watcher = null;
+        current.close();
+    }
+
 }
@@ -1,5 +1,7 @@
 package me.lauriichan.snowframe.config;
 
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 import it.unimi.dsi.fastutil.objects.Object2ObjectArrayMap;
@@ -9,9 +11,12 @@ import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import it.unimi.dsi.fastutil.objects.ObjectCollection;
 import it.unimi.dsi.fastutil.objects.ObjectList;
 import me.lauriichan.snowframe.SnowFrame;
+import me.lauriichan.snowframe.util.concurrent.Parallel;
 
 public final class ConfigManager {
 
+    private static final Executor DEFAULT_EXECUTOR = Parallel.virtualExecutor("ConfigIO");
+
     private final Object2ObjectArrayMap<Class<? extends ISingleConfigExtension>, ConfigWrapper<?>> configs = new Object2ObjectArrayMap<>();
     private final Object2ObjectArrayMap<Class<? extends IMultiConfigExtension>, MultiConfigWrapper<?, ?, ?, ?>> multiConfigs = new Object2ObjectArrayMap<>();
 
@@ -39,6 +44,18 @@ public final class ConfigManager {
         return Object2ObjectMaps.unmodifiable(results);
     }
 
+    public Object2ObjectMap<IConfigWrapper<?>, int[]> reloadParallel(boolean force, boolean wipeAfterLoad) {
+        return reload(force, wipeAfterLoad, DEFAULT_EXECUTOR);
+    }
+
+    /**
+     * Reloads all configs concurrently on the provided executor and waits until
+     * all of them are done
+     */
+    public Object2ObjectMap<IConfigWrapper<?>, int[]> reload(boolean force, boolean wipeAfterLoad, Executor executor) {
+        return runParallel(wrappers(), wrapper -> wrapper.reload(force, wipeAfterLoad), executor);
+    }
+
     public Object2ObjectMap<IConfigWrapper<?>, int[]> save() {
         return save(false);
     }
@@ -50,6 +67,30 @@ public final class ConfigManager {
         return Object2ObjectMaps.unmodifiable(results);
     }
 
+    public Object2ObjectMap<IConfigWrapper<?>, int[]> saveParallel(boolean force) {
+        return save(force, DEFAULT_EXECUTOR);
+    }
+
+    /**
+     * Saves all configs concurrently on the provided executor and waits until all
+     * of them are done
+     */
+    public Object2ObjectMap<IConfigWrapper<?>, int[]> save(boolean force, Executor executor) {
+        return runParallel(wrappers(), wrapper -> wrapper.save(force), executor);
+    }
+
+    private Object2ObjectMap<IConfigWrapper<?>, int[]> runParallel(ObjectList<IConfigWrapper<?>> wrappers,
+        Function<IConfigWrapper<?>, int[]> action, Executor executor) {
+        int[][] states = new int[wrappers.size()][];
+        Parallel.run(0, states.length, index -> states[index] = action.apply(wrappers.get(index)), executor);
+        // Keep the result order the same as if the wrappers were run one after another
+        Object2ObjectArrayMap<IConfigWrapper<?>, int[]> results = new Object2ObjectArrayMap<>(states.length);
+        for (int i = 0; i < states.length; i++) {
+            results.put(wrappers.get(i), states[i]);
+        }
+        return Object2ObjectMaps.unmodifiable(results);
+    }
+
     public ObjectList<IConfigWrapper<?>> wrappers() {
         return Stream.concat(configs.values().stream(), multiConfigs.values().stream().flatMap(config -> config.wrappers().stream()))
             .collect(ObjectArrayList.toList());
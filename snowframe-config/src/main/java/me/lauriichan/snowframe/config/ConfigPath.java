@@ -0,0 +1,98 @@
+package me.lauriichan.snowframe.config;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+public final class ConfigPath {
+
+    public static ConfigPath of(final String path) {
+        return new ConfigPath(Objects.requireNonNull(path, "Path can't be null"), split(path));
+    }
+
+    public static ConfigPath of(final String... segments) {
+        if (segments.length == 0) {
+            throw new IllegalArgumentException("Path requires at least one segment");
+        }
+        for (final String segment : segments) {
+            if (segment == null || segment.indexOf('.') != -1) {
+                throw new IllegalArgumentException("Invalid path segment: " + segment);
+            }
+        }
+        return new ConfigPath(String.join(".", segments), segments.clone());
+    }
+
+    static String[] split(final String path) {
+        int amount = 1;
+        for (int index = 0; index < path.length(); index++) {
+            if (path.charAt(index) == '.') {
+                amount++;
+            }
+        }
+        if (amount == 1) {
+            return new String[] {
+                path
+            };
+        }
+        final String[] segments = new String[amount];
+        int start = 0, segment = 0;
+        for (int index = 0; index < path.length(); index++) {
+            if (path.charAt(index) == '.') {
+                segments[segment++] = path.substring(start, index);
+                start = index + 1;
+            }
+        }
+        segments[segment] = path.substring(start);
+        return segments;
+    }
+
+    private final String path;
+    private final String[] segments;
+
+    private ConfigPath(final String path, final String[] segments) {
+        this.path = path;
+        this.segments = segments;
+    }
+
+    public String path() {
+        return path;
+    }
+
+    public int length() {
+        return segments.length;
+    }
+
+    public boolean isNested() {
+        return segments.length != 1;
+    }
+
+    public String segment(final int index) {
+        return segments[index];
+    }
+
+    public String last() {
+        return segments[segments.length - 1];
+    }
+
+    String[] segments() {
+        return segments;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        return obj instanceof ConfigPath other && Arrays.equals(segments, other.segments);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(segments);
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+
+}
@@ -0,0 +1,326 @@
+package me.lauriichan.snowframe.config;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import me.lauriichan.snowframe.resource.source.ContentHash;
+import me.lauriichan.snowframe.resource.source.FileDataSource;
+import me.lauriichan.snowframe.resource.source.IDataSource;
+import me.lauriichan.snowframe.resource.source.PathDataSource;
+
+/**
+ * A compact binary copy of a parsed configuration that is stored next to its
+ * source. The snapshot is only valid as long as the size, modification time and
+ * content hash of the source didn't change, the hash is verified against the
+ * content of the source which is still a lot cheaper than parsing it.
+ */
+final class ConfigSnapshot {
+
+    private static final int MAGIC = 0x53464353;
+    private static final byte FORMAT = 1;
+
+    private static final byte TYPE_CONFIGURATION = 0;
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_TRUE = 2;
+    private static final byte TYPE_FALSE = 3;
+    private static final byte TYPE_INT = 4;
+    private static final byte TYPE_LONG = 5;
+    private static final byte TYPE_DOUBLE = 6;
+    private static final byte TYPE_FLOAT = 7;
+    private static final byte TYPE_SHORT = 8;
+    private static final byte TYPE_BYTE = 9;
+    private static final byte TYPE_BIG_INTEGER = 10;
+    private static final byte TYPE_LIST = 11;
+
+    static ConfigSnapshot of(final IDataSource source) {
+        Path file = null;
+        if (source instanceof PathDataSource pathSource) {
+            file = pathSource.getSource();
+        } else if (source instanceof FileDataSource fileSource) {
+            file = fileSource.getSource().toPath();
+        }
+        // Snapshots are only stored for real files
+        if (file == null || file.getFileSystem() != FileSystems.getDefault() || file.getFileName() == null) {
+            return null;
+        }
+        return new ConfigSnapshot(file, file.resolveSibling('.' + file.getFileName().toString() + ".snapshot"));
+    }
+
+    private final Path source;
+    private final Path snapshot;
+
+    private ConfigSnapshot(final Path source, final Path snapshot) {
+        this.source = source;
+        this.snapshot = snapshot;
+    }
+
+    Path snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Reads the snapshot into the configuration
+     *
+     * @param  configuration the configuration to read into
+     * @param  modified      the modification time of the source
+     *
+     * @return               the content hash of the source or
+     *                           {@link ContentHash#NONE} if the snapshot is
+     *                           missing or outdated
+     *
+     * @throws IOException   if the snapshot or the source couldn't be read
+     */
+    long read(final Configuration configuration, final long modified) throws IOException {
+        if (!Files.isRegularFile(snapshot, LinkOption.NOFOLLOW_LINKS)) {
+            return ContentHash.NONE;
+        }
+        final long size = Files.size(source);
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot)))) {
+            if (input.readInt() != MAGIC || input.readByte() != FORMAT || input.readLong() != size || input.readLong() != modified) {
+                return ContentHash.NONE;
+            }
+            // Edits that keep the size within the granularity of the modification time are only visible in the content
+            final long hash = input.readLong();
+            if (hash == ContentHash.NONE || ContentHash.of(Files.readAllBytes(source)) != hash) {
+                return ContentHash.NONE;
+            }
+            readConfiguration(input, configuration);
+            return hash;
+        }
+    }
+
+    /**
+     * Writes the configuration as snapshot of the source
+     *
+     * @param  configuration the configuration the content of the source was
+     *                           written from
+     * @param  size          the size of the content
+     * @param  modified      the modification time of the source
+     * @param  hash          the content hash of the source
+     *
+     * @return               {@code true} if the snapshot was written or
+     *                           {@code false} if the configuration contains
+     *                           values that can't be stored in a snapshot
+     *
+     * @throws IOException   if the snapshot couldn't be written
+     */
+    boolean write(final Configuration configuration, final long size, final long modified, final long hash) throws IOException {
+        if (!isSupported(configuration)) {
+            Files.deleteIfExists(snapshot);
+            return false;
+        }
+        final Path temp = snapshot.resolveSibling(snapshot.getFileName().toString() + ".tmp");
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            output.writeInt(MAGIC);
+            output.writeByte(FORMAT);
+            output.writeLong(size);
+            output.writeLong(modified);
+            output.writeLong(hash);
+            writeConfiguration(output, configuration);
+        }
+        try {
+            Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final AtomicMoveNotSupportedException exception) {
+            Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return true;
+    }
+
+    void delete() throws IOException {
+        Files.deleteIfExists(snapshot);
+    }
+
+    /*
+     * Support
+     */
+
+    private static boolean isSupported(final Configuration configuration) {
+        for (final String key : configuration.keySet()) {
+            if (!isSupported(configuration.get(key))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSupported(final Object value) {
+        if (value instanceof Configuration configuration) {
+            return isSupported(configuration);
+        }
+        if (value instanceof List<?> list) {
+            for (final Object element : list) {
+                if (element == null || element instanceof Configuration || !isSupported(element)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (value instanceof Double number) {
+            // Non finite numbers don't survive the json handlers, a snapshot would restore them anyway
+            return Double.isFinite(number);
+        }
+        if (value instanceof Float number) {
+            return Float.isFinite(number);
+        }
+        return value instanceof String || value instanceof Boolean || value instanceof Integer || value instanceof Long
+            || value instanceof Short || value instanceof Byte || value instanceof BigInteger;
+    }
+
+    /*
+     * Write
+     */
+
+    private static void writeConfiguration(final DataOutputStream output, final Configuration configuration) throws IOException {
+        output.writeInt(configuration.keySet().size());
+        for (final String key : configuration.keySet()) {
+            writeString(output, key);
+            writeValue(output, configuration.get(key));
+        }
+    }
+
+    private static void writeValue(final DataOutputStream output, final Object value) throws IOException {
+        if (value instanceof Configuration configuration) {
+            output.writeByte(TYPE_CONFIGURATION);
+            writeConfiguration(output, configuration);
+        } else if (value instanceof String string) {
+            output.writeByte(TYPE_STRING);
+            writeString(output, string);
+        } else if (value instanceof Boolean bool) {
+            output.writeByte(bool ? TYPE_TRUE : TYPE_FALSE);
+        } else if (value instanceof Integer number) {
+            output.writeByte(TYPE_INT);
+            output.writeInt(number);
+        } else if (value instanceof Long number) {
+            output.writeByte(TYPE_LONG);
+            output.writeLong(number);
+        } else if (value instanceof Double number) {
+            output.writeByte(TYPE_DOUBLE);
+            output.writeDouble(number);
+        } else if (value instanceof Float number) {
+            output.writeByte(TYPE_FLOAT);
+            output.writeFloat(number);
+        } else if (value instanceof Short number) {
+            output.writeByte(TYPE_SHORT);
+            output.writeShort(number);
+        } else if (value instanceof Byte number) {
+            output.writeByte(TYPE_BYTE);
+            output.writeByte(number);
+        } else if (value instanceof BigInteger number) {
+            output.writeByte(TYPE_BIG_INTEGER);
+            final byte[] bytes = number.toByteArray();
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        } else if (value instanceof List<?> list) {
+            output.writeByte(TYPE_LIST);
+            output.writeInt(list.size());
+            for (final Object element : list) {
+                writeValue(output, element);
+            }
+        } else {
+            throw new IllegalStateException("Unsupported snapshot value: " + value.getClass().getName());
+        }
+    }
+
+    private static void writeString(final DataOutputStream output, final String string) throws IOException {
+        final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    /*
+     * Read
+     */
+
+    private static void readConfiguration(final DataInputStream input, final Configuration configuration) throws IOException {
+        final int amount = input.readInt();
+        String key;
+        byte type;
+        for (int index = 0; index < amount; index++) {
+            key = readString(input);
+            type = input.readByte();
+            switch (type) {
+            case TYPE_CONFIGURATION:
+                readConfiguration(input, configuration.getConfiguration(key, true));
+                break;
+            case TYPE_INT:
+                configuration.setInt(key, input.readInt());
+                break;
+            case TYPE_LONG:
+                configuration.setLong(key, input.readLong());
+                break;
+            case TYPE_DOUBLE:
+                configuration.setDouble(key, input.readDouble());
+                break;
+            default:
+                configuration.set(key, readValue(input, type));
+                break;
+            }
+        }
+    }
+
+    private static Object readValue(final DataInputStream input, final byte type) throws IOException {
+        switch (type) {
+        case TYPE_STRING:
+            return readString(input);
+        case TYPE_TRUE:
+            return Boolean.TRUE;
+        case TYPE_FALSE:
+            return Boolean.FALSE;
+        case TYPE_INT:
+            return input.readInt();
+        case TYPE_LONG:
+            return input.readLong();
+        case TYPE_DOUBLE:
+            return input.readDouble();
+        case TYPE_FLOAT:
+            return input.readFloat();
+        case TYPE_SHORT:
+            return input.readShort();
+        case TYPE_BYTE:
+            return input.readByte();
+        case TYPE_BIG_INTEGER:
+            return new BigInteger(readBytes(input));
+        case TYPE_LIST:
+            final int size = readLength(input);
+            final ObjectArrayList<Object> list = new ObjectArrayList<>(size);
+            for (int index = 0; index < size; index++) {
+                list.add(readValue(input, input.readByte()));
+            }
+            return list;
+        default:
+            throw new IOException("Unknown snapshot value type: " + type);
+        }
+    }
+
+    private static String readString(final DataInputStream input) throws IOException {
+        return new String(readBytes(input), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readBytes(final DataInputStream input) throws IOException {
+        final byte[] bytes = new byte[readLength(input)];
+        input.readFully(bytes);
+        return bytes;
+    }
+
+    private static int readLength(final DataInputStream input) throws IOException {
+        final int length = input.readInt();
+        if (length < 0) {
+            throw new IOException("Invalid length in snapshot: " + length);
+        }
+        return length;
+    }
+
+}
@@ -0,0 +1,242 @@
+package me.lauriichan.snowframe.config;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import it.unimi.dsi.fastutil.objects.Object2LongLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import me.lauriichan.laylib.logger.ISimpleLogger;
+import me.lauriichan.snowframe.resource.source.FileDataSource;
+import me.lauriichan.snowframe.resource.source.IDataSource;
+import me.lauriichan.snowframe.resource.source.PathDataSource;
+
+/**
+ * Watches the directories of all file based configs and reloads a config on a
+ * background thread once its file was changed. Bursts of changes to the same
+ * file are debounced into a single reload.<br>
+ * Only changed files are tracked, the config of a file is resolved through the
+ * {@link ConfigManager} once it is reloaded so that configs evicted by a
+ * {@link MultiConfigWrapper} are never reloaded.<br>
+ * Reloads update the fields of the config instances on the watcher thread,
+ * other threads should read watched configs through
+ * {@link ConfigWrapper#view()}.
+ */
+public final class ConfigWatcher implements AutoCloseable {
+
+    private final ConfigManager manager;
+    private final ISimpleLogger logger;
+
+    private final long debounce;
+
+    private final WatchService service;
+    private final Thread thread;
+
+    private final Object2ObjectMap<Path, WatchKey> directories = new Object2ObjectOpenHashMap<>();
+
+    // Only accessed by the watcher thread
+    private final Object2LongLinkedOpenHashMap<Path> pending = new Object2LongLinkedOpenHashMap<>();
+
+    private volatile boolean running = true;
+
+    public ConfigWatcher(final ConfigManager manager, final ISimpleLogger logger, final long debounce, final TimeUnit unit)
+        throws IOException {
+        this.manager = Objects.requireNonNull(manager);
+        this.logger = Objects.requireNonNull(logger);
+        if (debounce < 0) {
+            throw new IllegalArgumentException("Debounce can't be negative");
+        }
+        this.debounce = unit.toNanos(debounce);
+        this.service = FileSystems.getDefault().newWatchService();
+        refresh();
+        this.thread = Thread.ofPlatform().daemon().name("ConfigWatcher").start(this::watchThread);
+    }
+
+    public long debounce(final TimeUnit unit) {
+        return unit.convert(debounce, TimeUnit.NANOSECONDS);
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Updates the watched directories, this has to be called for configs that
+     * were created in a directory that isn't watched yet after the watcher was
+     * started, for example configs of a {@link MultiConfigWrapper}. Directories
+     * that no longer contain any config are no longer watched.
+     */
+    public synchronized void refresh() {
+        final ObjectOpenHashSet<Path> used = new ObjectOpenHashSet<>();
+        Path directory;
+        for (final Path file : wrappers().keySet()) {
+            directory = file.getParent();
+            if (directory == null || !Files.isDirectory(directory)) {
+                continue;
+            }
+            if (!directories.containsKey(directory)) {
+                try {
+                    directories.put(directory, directory.register(service, ENTRY_CREATE, ENTRY_MODIFY));
+                } catch (final IOException | ClosedWatchServiceException exception) {
+                    logger.warning("Failed to watch config directory '{0}'!", exception, directory);
+                    continue;
+                }
+            }
+            used.add(directory);
+        }
+        final ObjectIterator<Object2ObjectMap.Entry<Path, WatchKey>> iterator = directories.object2ObjectEntrySet().iterator();
+        Object2ObjectMap.Entry<Path, WatchKey> entry;
+        while (iterator.hasNext()) {
+            entry = iterator.next();
+            if (!used.contains(entry.getKey())) {
+                entry.getValue().cancel();
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Collects the file based configs that are currently known to the manager
+     */
+    private Object2ObjectMap<Path, ConfigWrapper<?>> wrappers() {
+        final Object2ObjectOpenHashMap<Path, ConfigWrapper<?>> map = new Object2ObjectOpenHashMap<>();
+        Path file;
+        for (final IConfigWrapper<?> wrapper : manager.wrappers()) {
+            if (wrapper instanceof ConfigWrapper<?> configWrapper && (file = pathOf(configWrapper.source())) != null) {
+                map.put(file, configWrapper);
+            }
+        }
+        return map;
+    }
+
+    @Override
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            service.close();
+        } catch (final IOException exception) {
+            logger.warning("Failed to close config watch service", exception);
+        }
+        thread.interrupt();
+    }
+
+    private void watchThread() {
+        WatchKey key;
+        while (running) {
+            try {
+                key = pending.isEmpty() ? service.take() : service.poll(nextDeadline() - System.nanoTime(), TimeUnit.NANOSECONDS);
+            } catch (final InterruptedException | ClosedWatchServiceException exception) {
+                continue;
+            }
+            if (key != null) {
+                collect(key);
+            }
+            reloadDue();
+        }
+    }
+
+    private void collect(final WatchKey key) {
+        if (!(key.watchable() instanceof Path directory)) {
+            key.reset();
+            return;
+        }
+        final long deadline = System.nanoTime() + debounce;
+        for (final WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                // Events were lost, so check every config inside of the directory
+                for (final Path file : wrappers().keySet()) {
+                    if (directory.equals(file.getParent())) {
+                        schedule(file, deadline);
+                    }
+                }
+                continue;
+            }
+            if (event.context() instanceof Path name) {
+                // Files that don't belong to a config are dropped once they are due
+                schedule(directory.resolve(name), deadline);
+            }
+        }
+        if (!key.reset()) {
+            synchronized (this) {
+                directories.remove(directory, key);
+            }
+        }
+    }
+
+    private void schedule(final Path file, final long deadline) {
+        // Moving the file to the end keeps the map ordered by deadline
+        pending.removeLong(file);
+        pending.put(file, deadline);
+    }
+
+    private long nextDeadline() {
+        return pending.getLong(pending.firstKey());
+    }
+
+    private void reloadDue() {
+        final long now = System.nanoTime();
+        final ObjectArrayList<Path> due = new ObjectArrayList<>();
+        final ObjectIterator<Object2LongMap.Entry<Path>> iterator = pending.object2LongEntrySet().fastIterator();
+        Object2LongMap.Entry<Path> entry;
+        while (iterator.hasNext()) {
+            entry = iterator.next();
+            if (entry.getLongValue() - now > 0) {
+                break;
+            }
+            due.add(entry.getKey());
+            iterator.remove();
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+        // Resolved right before the reload as configs could have been evicted or created in the meantime
+        final Object2ObjectMap<Path, ConfigWrapper<?>> current = wrappers();
+        ConfigWrapper<?> wrapper;
+        for (final Path file : due) {
+            wrapper = current.get(file);
+            if (wrapper == null) {
+                continue;
+            }
+            try {
+                // Events caused by writes of the wrapper itself end up as skipped reloads
+                wrapper.reloadSingle(false, false);
+            } catch (final RuntimeException exception) {
+                logger.warning("Failed to reload configuration '{0}'!", exception, wrapper.path());
+            }
+        }
+    }
+
+    private static Path pathOf(final IDataSource source) {
+        if (source instanceof PathDataSource pathSource) {
+            // Only the default file system can be watched
+            if (pathSource.getSource().getFileSystem() != FileSystems.getDefault()) {
+                return null;
+            }
+            return pathSource.getSource().toAbsolutePath().normalize();
+        }
+        if (source instanceof FileDataSource fileSource) {
+            return fileSource.getSource().toPath().toAbsolutePath().normalize();
+        }
+        return null;
+    }
+
+}
@@ -1,13 +1,16 @@
 package me.lauriichan.snowframe.config;
 
 import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
 
 import me.lauriichan.laylib.logger.ISimpleLogger;
 import me.lauriichan.snowframe.ConfigModule;
 import me.lauriichan.snowframe.IOModule;
 import me.lauriichan.snowframe.SnowFrame;
 import me.lauriichan.snowframe.io.IOManager;
+import me.lauriichan.snowframe.resource.source.ContentHash;
 import me.lauriichan.snowframe.resource.source.IDataSource;
+import me.lauriichan.snowframe.resource.source.MemoryDataSource;
 
 public final class ConfigWrapper<T extends IConfig> implements IConfigWrapper<T> {
 
@@ -34,6 +37,8 @@ public final class ConfigWrapper<T extends IConfig> implements IConfigWrapper<T>
         return state == FAIL_DATA_LOAD || state == FAIL_DATA_PROPERGATE || state == FAIL_DATA_MIGRATE || state == FAIL_DATA_SAVE;
     }
 
+    private static final Configuration EMPTY_VIEW = new Configuration().freeze();
+
     public static <S extends ISingleConfigExtension> ConfigWrapper<S> single(final SnowFrame<?> snowFrame, final S extension) {
         return new ConfigWrapper<>(snowFrame, extension, extension.path());
     }
@@ -51,24 +56,57 @@ public final class ConfigWrapper<T extends IConfig> implements IConfigWrapper<T>
     private final IDataSource source;
     private final IConfigHandler handler;
 
+    private final ConfigSnapshot snapshot;
+    private volatile boolean snapshotCache;
+
     private volatile long lastTimeModified = -1L;
+    private volatile long contentHash = ContentHash.NONE;
+
+    private volatile Configuration view = EMPTY_VIEW;
+
+    // Reloads and saves of the same config never overlap, no matter which thread triggers them
+    private final ReentrantLock lock = new ReentrantLock();
 
     @SuppressWarnings("unchecked")
     public ConfigWrapper(final SnowFrame<?> snowFrame, final T extension, final String path) {
         this.logger = snowFrame.logger();
         this.ioManager = snowFrame.module(IOModule.class).manager();
-        this.migrator = snowFrame.module(ConfigModule.class).migrator();
+        final ConfigModule module = snowFrame.module(ConfigModule.class);
+        this.migrator = module.migrator();
+        this.snapshotCache = module.snapshotCache();
         this.path = path;
         this.config = Objects.requireNonNull(extension, "Config extension can't be null");
         this.configType = (Class<T>) config.getClass();
         this.source = Objects.requireNonNull(snowFrame.resource(path), "Couldn't find data source at '" + path + "'");
         this.handler = Objects.requireNonNull(extension.handler(), "Config handler can't be null");
+        this.snapshot = ConfigSnapshot.of(source);
     }
 
+    /**
+     * Gets the config instance. Its fields are updated in place by every reload,
+     * which can run on any thread (for example the thread of the
+     * {@link ConfigWatcher}), so they are not safe to read while the config might
+     * be reloaded. Use {@link #view()} to read the configuration from other
+     * threads.
+     * 
+     * @return the config instance
+     */
     public T config() {
         return config;
     }
 
+    /**
+     * Gets the configuration data of the last reload or save, the returned
+     * configuration is frozen and replaced as a whole so that it can be read from
+     * any thread without locking while the config is reloaded. This is the only
+     * thread-safe way to read a config that is reloaded in the background.
+     * 
+     * @return the frozen configuration, empty if the config wasn't loaded yet
+     */
+    public Configuration view() {
+        return view;
+    }
+
     public String path() {
         return path;
     }
@@ -85,6 +123,21 @@ public final class ConfigWrapper<T extends IConfig> implements IConfigWrapper<T>
         return lastTimeModified;
     }
 
+    public boolean snapshotCache() {
+        return snapshotCache;
+    }
+
+    /**
+     * Sets if a binary snapshot of the parsed source should be stored next to
+     * the source, which is loaded instead of parsing the source as long as the
+     * source didn't change
+     * 
+     * @param snapshotCache {@code true} if snapshots should be used
+     */
+    public void snapshotCache(final boolean snapshotCache) {
+        this.snapshotCache = snapshotCache;
+    }
+
     @Override
     public Class<T> configType() {
         return configType;
@@ -98,43 +151,29 @@ public final class ConfigWrapper<T extends IConfig> implements IConfigWrapper<T>
     }
 
     public int reloadSingle(final boolean forceReload, final boolean wipeAfterLoad) {
+        lock.lock();
+        try {
+            return reloadLocked(forceReload, wipeAfterLoad);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int reloadLocked(final boolean forceReload, final boolean wipeAfterLoad) {
         final Configuration configuration = new Configuration();
+        boolean parsed = false;
         if (source.exists()) {
             if (!forceReload && lastTimeModified == source.lastModified() && !config.isModified()) {
                 return SKIPPED;
             }
-            configuration.clear();
-            if (migrator != null) {
-                try {
-                    handler.load(ioManager, configuration, source, true);
-                    lastTimeModified = source.lastModified();
-                } catch (final Exception exception) {
-                    logger.warning("Failed to load configuration from '{0}'!", exception, path);
-                    return FAIL_IO_LOAD;
-                }
-                int version = configuration.getInt("version", 0);
-                if (migrator.needsMigration(configType, version)) {
-                    try {
-                        int newVersion = migrator.migrate(logger, version, configuration, config);
-                        configuration.set("version", newVersion);
-                    } catch (ConfigMigrationFailedException exception) {
-                        logger.warning("Failed to migrate configuration data of '{0}'!", exception, path);
-                        return FAIL_DATA_MIGRATE;
-                    }
-                    try {
-                        handler.save(ioManager, configuration, source);
-                    } catch (final Exception exception) {
-                        logger.warning("Failed to save migrated configuration to '{0}'!", exception, path);
-                        return FAIL_IO_SAVE;
-                    }
+            final long modified = source.lastModified();
+            if (!loadSnapshot(configuration, modified)) {
+                configuration.clear();
+                final int state = parse(configuration, modified);
+                if (state != SUCCESS) {
+                    return state;
                 }
-            }
-            try {
-                handler.load(ioManager, configuration, source, false);
-                lastTimeModified = source.lastModified();
-            } catch (final Exception exception) {
-                logger.warning("Failed to load configuration from '{0}'!", exception, path);
-                return FAIL_IO_LOAD;
+                parsed = true;
             }
         } else {
             try {
@@ -162,16 +201,130 @@ public final class ConfigWrapper<T extends IConfig> implements IConfigWrapper<T>
         if (migrator != null) {
             configuration.set("version", migrator.getTargetVersion(configType));
         }
+        final int state = write(configuration, false, parsed);
+        if (isFailedState(state)) {
+            return state;
+        }
+        view = configuration.freeze();
+        return SUCCESS;
+    }
+
+    private boolean loadSnapshot(final Configuration configuration, final long modified) {
+        if (!snapshotCache || snapshot == null) {
+            return false;
+        }
+        final long hash;
         try {
-            handler.save(ioManager, configuration, source);
-            lastTimeModified = source.lastModified();
+            hash = snapshot.read(configuration, modified);
         } catch (final Exception exception) {
-            logger.warning("Failed to save configuration to '{0}'!", exception, path);
-            return FAIL_IO_SAVE;
+            // A broken snapshot is simply replaced the next time the source is parsed
+            return false;
+        }
+        if (hash == ContentHash.NONE) {
+            return false;
+        }
+        if (migrator != null && migrator.needsMigration(configType, configuration.getInt("version", 0))) {
+            return false;
+        }
+        lastTimeModified = modified;
+        contentHash = hash;
+        return true;
+    }
+
+    private int parse(final Configuration configuration, final long modified) {
+        final byte[] content;
+        try {
+            content = ContentHash.read(source);
+        } catch (final Exception exception) {
+            logger.warning("Failed to load configuration from '{0}'!", exception, path);
+            return FAIL_IO_LOAD;
+        }
+        lastTimeModified = modified;
+        contentHash = ContentHash.of(content);
+        // The source is only read once, everything else happens in memory
+        final MemoryDataSource memory = new MemoryDataSource(path, content);
+        Exception loadFailure = null;
+        try {
+            handler.load(ioManager, configuration, memory, false);
+        } catch (final Exception exception) {
+            if (migrator == null) {
+                logger.warning("Failed to load configuration from '{0}'!", exception, path);
+                return FAIL_IO_LOAD;
+            }
+            // Outdated data might only be readable after it was migrated
+            loadFailure = exception;
+        }
+        if (migrator != null) {
+            final int state = migrate(memory, configuration, loadFailure);
+            if (state == SKIPPED) {
+                configuration.clear();
+                try {
+                    handler.load(ioManager, configuration, memory, false);
+                } catch (final Exception exception) {
+                    logger.warning("Failed to load migrated configuration of '{0}'!", exception, path);
+                    return FAIL_IO_LOAD;
+                }
+                return SUCCESS;
+            }
+            if (state != SUCCESS) {
+                return state;
+            }
         }
         return SUCCESS;
     }
 
+    /**
+     * Migrates the data of the memory source if required
+     * 
+     * @return {@link #SUCCESS} if no migration was required, {@link #SKIPPED} if
+     *             the migrated data was written to the memory source and has to
+     *             be loaded again or an error state
+     */
+    private int migrate(final MemoryDataSource memory, final Configuration configuration, final Exception loadFailure) {
+        Configuration data = configuration;
+        if (loadFailure != null) {
+            data = new Configuration();
+            try {
+                handler.load(ioManager, data, memory, true);
+            } catch (final Exception exception) {
+                logger.warning("Failed to load configuration from '{0}'!", loadFailure, path);
+                return FAIL_IO_LOAD;
+            }
+        }
+        final int version = data.getInt("version", 0);
+        if (!migrator.needsMigration(configType, version)) {
+            if (loadFailure != null) {
+                logger.warning("Failed to load configuration from '{0}'!", loadFailure, path);
+                return FAIL_IO_LOAD;
+            }
+            return SUCCESS;
+        }
+        if (loadFailure == null) {
+            // Migrations operate on the raw data
+            data = new Configuration();
+            try {
+                handler.load(ioManager, data, memory, true);
+            } catch (final Exception exception) {
+                logger.warning("Failed to load configuration from '{0}'!", exception, path);
+                return FAIL_IO_LOAD;
+            }
+        }
+        try {
+            final int newVersion = migrator.migrate(logger, version, data, config);
+            data.set("version", newVersion);
+        } catch (final ConfigMigrationFailedException exception) {
+            logger.warning("Failed to migrate configuration data of '{0}'!", exception, path);
+            return FAIL_DATA_MIGRATE;
+        }
+        try {
+            handler.save(ioManager, data, memory);
+        } catch (final Exception exception) {
+            logger.warning("Failed to save migrated configuration of '{0}'!", exception, path);
+            return FAIL_IO_SAVE;
+        }
+        return SKIPPED;
+    }
+
     @Override
     public int[] save(boolean forceSave) {
         return new int[] {
@@ -180,6 +333,15 @@ public final class ConfigWrapper<T extends IConfig> implements IConfigWrapper<T>
     }
 
     public int saveSingle(final boolean force) {
+        lock.lock();
+        try {
+            return saveLocked(force);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int saveLocked(final boolean force) {
         if (!force && !config.isModified() && source.exists()) {
             return SKIPPED;
         }
@@ -193,14 +355,65 @@ public final class ConfigWrapper<T extends IConfig> implements IConfigWrapper<T>
         if (migrator != null) {
             configuration.set("version", migrator.getTargetVersion(configType));
         }
+        final int state = write(configuration, force, false);
+        if (!isFailedState(state)) {
+            view = configuration.freeze();
+        }
+        return state;
+    }
+
+    /**
+     * Serializes the configuration and writes it to the source unless the
+     * serialized content is equal to the content the source is known to contain
+     * and the write isn't forced. The snapshot is stored from the final content
+     * whenever the content was written or the source was parsed, as only then
+     * an existing snapshot might be outdated.
+     * 
+     * @return {@link #SUCCESS} if the content was written, {@link #SKIPPED} if it
+     *             didn't change or an error state
+     */
+    private int write(final Configuration configuration, final boolean force, final boolean parsed) {
+        final MemoryDataSource memory = new MemoryDataSource(path);
+        try {
+            handler.save(ioManager, configuration, memory);
+        } catch (final Exception exception) {
+            logger.warning("Failed to save configuration to '{0}'!", exception, path);
+            return FAIL_IO_SAVE;
+        }
+        final byte[] content = memory.content();
+        if (content == null) {
+            return SKIPPED;
+        }
+        // The known hash is only valid if the source wasn't changed by someone else
+        final long previousHash = !force && lastTimeModified == source.lastModified() ? contentHash : ContentHash.NONE;
+        final long hash;
         try {
-            handler.save(ioManager, configuration, source);
-            lastTimeModified = source.lastModified();
+            hash = ContentHash.write(source, content, previousHash);
         } catch (final Exception exception) {
             logger.warning("Failed to save configuration to '{0}'!", exception, path);
             return FAIL_IO_SAVE;
         }
+        if (hash == ContentHash.NONE) {
+            if (parsed) {
+                writeSnapshot(configuration, content.length);
+            }
+            return SKIPPED;
+        }
+        contentHash = hash;
+        lastTimeModified = source.lastModified();
+        writeSnapshot(configuration, content.length);
         return SUCCESS;
     }
 
+    private void writeSnapshot(final Configuration configuration, final int size) {
+        if (!snapshotCache || snapshot == null) {
+            return;
+        }
+        try {
+            snapshot.write(configuration, size, lastTimeModified, contentHash);
+        } catch (final Exception exception) {
+            logger.warning("Failed to write configuration snapshot of '{0}'!", exception, path);
+        }
+    }
+
 }
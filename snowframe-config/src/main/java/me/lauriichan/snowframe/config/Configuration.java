@@ -6,19 +6,210 @@ import java.util.Map;
 import java.util.Set;
 
 import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectSets;
 
 public final class Configuration {
 
+    /*
+     * Primitive slots
+     */
+
+    // Ints, longs and doubles are stored in mutable slots so that they can be
+    // updated and read without boxing, the slots never leave the configuration
+    private static abstract class NumberSlot extends Number {
+
+        private static final long serialVersionUID = 1L;
+
+        // Boxed values are immutable, so racing readers of a frozen configuration
+        // at worst box the same value twice
+        private transient Number boxed;
+
+        final Number boxed() {
+            Number boxed = this.boxed;
+            if (boxed == null) {
+                this.boxed = boxed = box();
+            }
+            return boxed;
+        }
+
+        final void invalidate() {
+            boxed = null;
+        }
+
+        abstract Number box();
+
+    }
+
+    private static final class IntSlot extends NumberSlot {
+
+        private static final long serialVersionUID = 1L;
+
+        private int value;
+
+        private IntSlot(final int value) {
+            this.value = value;
+        }
+
+        @Override
+        public int intValue() {
+            return value;
+        }
+
+        @Override
+        public long longValue() {
+            return value;
+        }
+
+        @Override
+        public float floatValue() {
+            return value;
+        }
+
+        @Override
+        public double doubleValue() {
+            return value;
+        }
+
+        @Override
+        Number box() {
+            return value;
+        }
+
+    }
+
+    private static final class LongSlot extends NumberSlot {
+
+        private static final long serialVersionUID = 1L;
+
+        private long value;
+
+        private LongSlot(final long value) {
+            this.value = value;
+        }
+
+        @Override
+        public int intValue() {
+            return (int) value;
+        }
+
+        @Override
+        public long longValue() {
+            return value;
+        }
+
+        @Override
+        public float floatValue() {
+            return value;
+        }
+
+        @Override
+        public double doubleValue() {
+            return value;
+        }
+
+        @Override
+        Number box() {
+            return value;
+        }
+
+    }
+
+    private static final class DoubleSlot extends NumberSlot {
+
+        private static final long serialVersionUID = 1L;
+
+        private double value;
+
+        private DoubleSlot(final double value) {
+            this.value = value;
+        }
+
+        @Override
+        public int intValue() {
+            return (int) value;
+        }
+
+        @Override
+        public long longValue() {
+            return (long) value;
+        }
+
+        @Override
+        public float floatValue() {
+            return (float) value;
+        }
+
+        @Override
+        public double doubleValue() {
+            return value;
+        }
+
+        @Override
+        Number box() {
+            return value;
+        }
+
+    }
+
     private final Object2ObjectLinkedOpenHashMap<String, Object> map = new Object2ObjectLinkedOpenHashMap<>();
-    
+
+    // Only written before the configuration is published to other threads
+    private boolean frozen = false;
+
+    /*
+     * Freeze
+     */
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Makes this configuration and all nested configurations immutable, lists
+     * and maps are replaced by unmodifiable copies. A frozen configuration can be
+     * read by any amount of threads without synchronization once it was safely
+     * published, custom values are not copied though and have to be immutable
+     * themselves.
+     * 
+     * @return this configuration
+     */
+    public Configuration freeze() {
+        if (frozen) {
+            return this;
+        }
+        for (final Object2ObjectMap.Entry<String, Object> entry : map.object2ObjectEntrySet()) {
+            final Object value = entry.getValue();
+            if (value instanceof Configuration configuration) {
+                configuration.freeze();
+            } else if (value instanceof List<?> list) {
+                entry.setValue(Collections.unmodifiableList(new ObjectArrayList<>(list)));
+            } else if (value instanceof Map<?, ?> valueMap) {
+                entry.setValue(Collections.unmodifiableMap(new Object2ObjectLinkedOpenHashMap<>(valueMap)));
+            }
+        }
+        frozen = true;
+        return this;
+    }
+
+    private void ensureMutable() {
+        if (frozen) {
+            throw new UnsupportedOperationException("Configuration is frozen");
+        }
+    }
+
     /*
      * Keys
      */
 
     public Set<String> keySet() {
+        if (frozen) {
+            return ObjectSets.unmodifiable(map.keySet());
+        }
         return map.keySet();
     }
-    
+
     public boolean isEmpty() {
         return map.isEmpty();
     }
@@ -35,28 +226,155 @@ public final class Configuration {
         if (object instanceof Configuration) {
             throw new IllegalStateException("Can't put a configuration into another configuration!");
         }
-        if (!pathUri.contains(".")) {
-            map.put(pathUri, object);
+        if (pathUri.indexOf('.') == -1) {
+            put(pathUri, object);
+            return;
+        }
+        set(ConfigPath.split(pathUri), object);
+    }
+
+    public void set(final ConfigPath path, final Object object) {
+        if (object == null) {
+            remove(path);
+            return;
+        }
+        if (object instanceof Configuration) {
+            throw new IllegalStateException("Can't put a configuration into another configuration!");
+        }
+        set(path.segments(), object);
+    }
+
+    private void set(final String[] path, final Object object) {
+        findConfiguration(path, path.length - 1, true).put(path[path.length - 1], object);
+    }
+
+    private void put(final String key, final Object object) {
+        ensureMutable();
+        if (object instanceof Integer value) {
+            putInt(key, value);
+        } else if (object instanceof Long value) {
+            putLong(key, value);
+        } else if (object instanceof Double value) {
+            putDouble(key, value);
+        } else {
+            map.put(key, object);
+        }
+    }
+
+    private void putInt(final String key, final int value) {
+        ensureMutable();
+        if (map.get(key) instanceof IntSlot slot) {
+            slot.value = value;
+            slot.invalidate();
+            return;
+        }
+        map.put(key, new IntSlot(value));
+    }
+
+    private void putLong(final String key, final long value) {
+        ensureMutable();
+        if (map.get(key) instanceof LongSlot slot) {
+            slot.value = value;
+            slot.invalidate();
+            return;
+        }
+        map.put(key, new LongSlot(value));
+    }
+
+    private void putDouble(final String key, final double value) {
+        ensureMutable();
+        if (map.get(key) instanceof DoubleSlot slot) {
+            slot.value = value;
+            slot.invalidate();
+            return;
+        }
+        map.put(key, new DoubleSlot(value));
+    }
+
+    /*
+     * Primitive setter
+     */
+
+    public void setBoolean(final String pathUri, final boolean value) {
+        set(pathUri, Boolean.valueOf(value));
+    }
+
+    public void setBoolean(final ConfigPath path, final boolean value) {
+        set(path, Boolean.valueOf(value));
+    }
+
+    public void setInt(final String pathUri, final int value) {
+        if (pathUri.indexOf('.') == -1) {
+            putInt(pathUri, value);
+            return;
+        }
+        setInt(ConfigPath.split(pathUri), value);
+    }
+
+    public void setInt(final ConfigPath path, final int value) {
+        setInt(path.segments(), value);
+    }
+
+    private void setInt(final String[] path, final int value) {
+        findConfiguration(path, path.length - 1, true).putInt(path[path.length - 1], value);
+    }
+
+    public void setLong(final String pathUri, final long value) {
+        if (pathUri.indexOf('.') == -1) {
+            putLong(pathUri, value);
+            return;
+        }
+        setLong(ConfigPath.split(pathUri), value);
+    }
+
+    public void setLong(final ConfigPath path, final long value) {
+        setLong(path.segments(), value);
+    }
+
+    private void setLong(final String[] path, final long value) {
+        findConfiguration(path, path.length - 1, true).putLong(path[path.length - 1], value);
+    }
+
+    public void setDouble(final String pathUri, final double value) {
+        if (pathUri.indexOf('.') == -1) {
+            putDouble(pathUri, value);
             return;
         }
-        final String[] path = pathUri.split("\\.");
-        findConfiguration(path, path.length - 1, true).map.put(path[path.length - 1], object);
+        setDouble(ConfigPath.split(pathUri), value);
+    }
+
+    public void setDouble(final ConfigPath path, final double value) {
+        setDouble(path.segments(), value);
+    }
+
+    private void setDouble(final String[] path, final double value) {
+        findConfiguration(path, path.length - 1, true).putDouble(path[path.length - 1], value);
     }
 
     public void remove(final String pathUri) {
-        if (!pathUri.contains(".")) {
+        if (pathUri.indexOf('.') == -1) {
+            ensureMutable();
             map.remove(pathUri);
             return;
         }
-        final String[] path = pathUri.split("\\.");
+        remove(ConfigPath.split(pathUri));
+    }
+
+    public void remove(final ConfigPath path) {
+        remove(path.segments());
+    }
+
+    private void remove(final String[] path) {
         final Configuration config = findConfiguration(path, path.length - 1, false);
         if (config == null) {
             return;
         }
+        config.ensureMutable();
         config.map.remove(path[path.length - 1]);
     }
 
     public void clear() {
+        ensureMutable();
         map.clear();
     }
 
@@ -65,25 +383,28 @@ public final class Configuration {
      */
 
     public boolean contains(final String pathUri) {
-        if (!pathUri.contains(".")) {
+        if (pathUri.indexOf('.') == -1) {
             return map.containsKey(pathUri);
         }
-        final String[] path = pathUri.split("\\.");
+        return contains(ConfigPath.split(pathUri));
+    }
+
+    public boolean contains(final ConfigPath path) {
+        return contains(path.segments());
+    }
+
+    private boolean contains(final String[] path) {
         final Configuration config = findConfiguration(path, path.length - 1, false);
         return config != null && config.map.containsKey(path[path.length - 1]);
     }
 
     public boolean contains(final String pathUri, final Class<?> type) {
-        if (!pathUri.contains(".")) {
-            final Object object = map.get(pathUri);
-            return object != null && type.isAssignableFrom(object.getClass());
-        }
-        final String[] path = pathUri.split("\\.");
-        final Configuration config = findConfiguration(path, path.length - 1, false);
-        if (config == null) {
-            return false;
-        }
-        final Object object = map.get(path[path.length - 1]);
+        final Object object = get(pathUri);
+        return object != null && type.isAssignableFrom(object.getClass());
+    }
+
+    public boolean contains(final ConfigPath path, final Class<?> type) {
+        final Object object = get(path);
         return object != null && type.isAssignableFrom(object.getClass());
     }
 
@@ -92,10 +413,25 @@ public final class Configuration {
      */
 
     public Object get(final String pathUri) {
-        if (!pathUri.contains(".")) {
+        return unwrap(raw(pathUri));
+    }
+
+    public Object get(final ConfigPath path) {
+        return unwrap(raw(path.segments()));
+    }
+
+    private Object raw(final String pathUri) {
+        if (pathUri.indexOf('.') == -1) {
             return map.get(pathUri);
         }
-        final String[] path = pathUri.split("\\.");
+        return raw(ConfigPath.split(pathUri));
+    }
+
+    private Object raw(final ConfigPath path) {
+        return raw(path.segments());
+    }
+
+    private Object raw(final String[] path) {
         final Configuration config = findConfiguration(path, path.length - 1, false);
         if (config == null) {
             return null;
@@ -104,29 +440,19 @@ public final class Configuration {
     }
 
     public <E> E get(final String pathUri, final Class<E> type) {
-        if (type.isEnum()) {
-            return type.cast(getEnum(pathUri, type.asSubclass(Enum.class)));
-        }
-        final Object object = get(pathUri);
-        if (object == null || !type.isAssignableFrom(object.getClass())) {
-            return null;
-        }
-        return type.cast(object);
+        return get(pathUri, type, null);
+    }
+
+    public <E> E get(final ConfigPath path, final Class<E> type) {
+        return get(path, type, null);
     }
 
     public <E> E get(final String pathUri, final Class<E> type, final E fallback) {
-        if (type.isEnum()) {
-            E value = type.cast(getEnum(pathUri, type.asSubclass(Enum.class)));
-            if (value == null) {
-                return fallback;
-            }
-            return value;
-        }
-        final Object object = get(pathUri);
-        if (object == null || !type.isAssignableFrom(object.getClass())) {
-            return fallback;
-        }
-        return type.cast(object);
+        return asType(get(pathUri), type, fallback);
+    }
+
+    public <E> E get(final ConfigPath path, final Class<E> type, final E fallback) {
+        return asType(get(path), type, fallback);
     }
 
     /*
@@ -137,84 +463,112 @@ public final class Configuration {
         return getBoolean(pathUri, false);
     }
 
+    public boolean getBoolean(final ConfigPath path) {
+        return getBoolean(path, false);
+    }
+
     public boolean getBoolean(final String pathUri, final boolean fallback) {
-        final Object object = get(pathUri);
-        if (object == null || !(object instanceof Boolean)) {
-            return fallback;
-        }
-        return (Boolean) object;
+        return asBoolean(raw(pathUri), fallback);
+    }
+
+    public boolean getBoolean(final ConfigPath path, final boolean fallback) {
+        return asBoolean(raw(path), fallback);
     }
 
     public byte getByte(final String pathUri) {
         return getByte(pathUri, (byte) 0);
     }
 
+    public byte getByte(final ConfigPath path) {
+        return getByte(path, (byte) 0);
+    }
+
     public byte getByte(final String pathUri, final byte fallback) {
-        final Object object = get(pathUri);
-        if (object == null || !(object instanceof Number)) {
-            return fallback;
-        }
-        return ((Number) object).byteValue();
+        return raw(pathUri) instanceof Number number ? number.byteValue() : fallback;
+    }
+
+    public byte getByte(final ConfigPath path, final byte fallback) {
+        return raw(path) instanceof Number number ? number.byteValue() : fallback;
     }
 
     public short getShort(final String pathUri) {
         return getShort(pathUri, (short) 0);
     }
 
+    public short getShort(final ConfigPath path) {
+        return getShort(path, (short) 0);
+    }
+
     public short getShort(final String pathUri, final short fallback) {
-        final Object object = get(pathUri);
-        if (object == null || !(object instanceof Number)) {
-            return fallback;
-        }
-        return ((Number) object).shortValue();
+        return raw(pathUri) instanceof Number number ? number.shortValue() : fallback;
+    }
+
+    public short getShort(final ConfigPath path, final short fallback) {
+        return raw(path) instanceof Number number ? number.shortValue() : fallback;
     }
 
     public int getInt(final String pathUri) {
         return getInt(pathUri, 0);
     }
 
+    public int getInt(final ConfigPath path) {
+        return getInt(path, 0);
+    }
+
     public int getInt(final String pathUri, final int fallback) {
-        final Object object = get(pathUri);
-        if (object == null || !(object instanceof Number)) {
-            return fallback;
-        }
-        return ((Number) object).intValue();
+        return raw(pathUri) instanceof Number number ? number.intValue() : fallback;
+    }
+
+    public int getInt(final ConfigPath path, final int fallback) {
+        return raw(path) instanceof Number number ? number.intValue() : fallback;
     }
 
     public long getLong(final String pathUri) {
         return getLong(pathUri, 0L);
     }
 
+    public long getLong(final ConfigPath path) {
+        return getLong(path, 0L);
+    }
+
     public long getLong(final String pathUri, final long fallback) {
-        final Object object = get(pathUri);
-        if (object == null || !(object instanceof Number)) {
-            return fallback;
-        }
-        return ((Number) object).longValue();
+        return raw(pathUri) instanceof Number number ? number.longValue() : fallback;
+    }
+
+    public long getLong(final ConfigPath path, final long fallback) {
+        return raw(path) instanceof Number number ? number.longValue() : fallback;
     }
 
     public float getFloat(final String pathUri) {
         return getFloat(pathUri, 0f);
     }
 
+    public float getFloat(final ConfigPath path) {
+        return getFloat(path, 0f);
+    }
+
     public float getFloat(final String pathUri, final float fallback) {
-        final Object object = get(pathUri);
-        if (object == null || !(object instanceof Number)) {
-            return fallback;
-        }
-        return ((Number) object).floatValue();
+        return raw(pathUri) instanceof Number number ? number.floatValue() : fallback;
+    }
+
+    public float getFloat(final ConfigPath path, final float fallback) {
+        return raw(path) instanceof Number number ? number.floatValue() : fallback;
     }
 
     public double getDouble(final String pathUri) {
         return getDouble(pathUri, 0d);
     }
 
+    public double getDouble(final ConfigPath path) {
+        return getDouble(path, 0d);
+    }
+
     public double getDouble(final String pathUri, final double fallback) {
-        final Object object = get(pathUri);
-        if (object == null || !(object instanceof Number)) {
-            return fallback;
-        }
-        return ((Number) object).doubleValue();
+        return raw(pathUri) instanceof Number number ? number.doubleValue() : fallback;
+    }
+
+    public double getDouble(final ConfigPath path, final double fallback) {
+        return raw(path) instanceof Number number ? number.doubleValue() : fallback;
     }
 
     /*
@@ -225,59 +579,140 @@ public final class Configuration {
         return getEnum(pathUri, enumClazz, null);
     }
 
+    public <E extends Enum<E>> E getEnum(final ConfigPath path, final Class<E> enumClazz) {
+        return getEnum(path, enumClazz, null);
+    }
+
     public <E extends Enum<E>> E getEnum(final String pathUri, final Class<E> enumClazz, final E fallback) {
-        final Object object = get(pathUri);
-        if (object == null) {
-            return fallback;
-        }
-        if (object.getClass() == enumClazz) {
-            return enumClazz.cast(object);
-        }
-        if (!(object instanceof String)) {
-            return fallback;
-        }
-        String string = (String) object;
-        try {
-            return Enum.valueOf(enumClazz, string);
-        } catch (IllegalArgumentException exp1) {
-            try {
-                return Enum.valueOf(enumClazz, string.toUpperCase());
-            } catch(IllegalArgumentException exp2) {
-                try {
-                    return Enum.valueOf(enumClazz, string.toLowerCase());
-                } catch(IllegalArgumentException exp3) {
-                    return fallback;
-                }
-            }
-        }
+        final Enum<?> value = asEnum(get(pathUri), enumClazz);
+        return value == null ? fallback : enumClazz.cast(value);
+    }
+
+    public <E extends Enum<E>> E getEnum(final ConfigPath path, final Class<E> enumClazz, final E fallback) {
+        final Enum<?> value = asEnum(get(path), enumClazz);
+        return value == null ? fallback : enumClazz.cast(value);
     }
 
     public Number getNumber(final String pathUri) {
         return getNumber(pathUri, 0);
     }
 
+    public Number getNumber(final ConfigPath path) {
+        return getNumber(path, 0);
+    }
+
     public Number getNumber(final String pathUri, final Number fallback) {
-        final Object object = get(pathUri);
-        if (object == null || !(object instanceof Number)) {
-            return fallback;
-        }
-        return (Number) object;
+        return get(pathUri) instanceof Number number ? number : fallback;
+    }
+
+    public Number getNumber(final ConfigPath path, final Number fallback) {
+        return get(path) instanceof Number number ? number : fallback;
     }
 
     public boolean isConfiguration(final String pathUri) {
         return contains(pathUri, Configuration.class);
     }
 
+    public boolean isConfiguration(final ConfigPath path) {
+        return contains(path, Configuration.class);
+    }
+
     public Configuration getConfiguration(final String pathUri) {
         return getConfiguration(pathUri, false);
     }
 
+    public Configuration getConfiguration(final ConfigPath path) {
+        return getConfiguration(path, false);
+    }
+
     public Configuration getConfiguration(final String pathUri, final boolean createIfNotExists) {
-        return findConfiguration(pathUri.split("\\."), createIfNotExists);
+        return findConfiguration(ConfigPath.split(pathUri), createIfNotExists);
+    }
+
+    public Configuration getConfiguration(final ConfigPath path, final boolean createIfNotExists) {
+        return findConfiguration(path.segments(), createIfNotExists);
     }
 
     public <E> List<E> getList(final String pathUri, final Class<E> type) {
-        final Object object = get(pathUri);
+        return asList(get(pathUri));
+    }
+
+    public <E> List<E> getList(final ConfigPath path, final Class<E> type) {
+        return asList(get(path));
+    }
+
+    public <K, V> Map<K, V> getMap(final String pathUri, final Class<K> keyType, final Class<V> valueType) {
+        return asMap(get(pathUri));
+    }
+
+    public <K, V> Map<K, V> getMap(final ConfigPath path, final Class<K> keyType, final Class<V> valueType) {
+        return asMap(get(path));
+    }
+
+    /*
+     * Helper
+     */
+
+    private static Object unwrap(final Object object) {
+        if (object instanceof NumberSlot slot) {
+            return slot.boxed();
+        }
+        return object;
+    }
+
+    private static <E> E asType(final Object object, final Class<E> type, final E fallback) {
+        if (type.isEnum()) {
+            final Enum<?> value = asEnum(object, type.asSubclass(Enum.class));
+            if (value == null) {
+                return fallback;
+            }
+            return type.cast(value);
+        }
+        if (object == null || !type.isAssignableFrom(object.getClass())) {
+            return fallback;
+        }
+        return type.cast(object);
+    }
+
+    private static boolean asBoolean(final Object object, final boolean fallback) {
+        if (object == null || !(object instanceof Boolean)) {
+            return fallback;
+        }
+        return (Boolean) object;
+    }
+
+    @SuppressWarnings({
+        "unchecked",
+        "rawtypes"
+    })
+    private static Enum<?> asEnum(final Object object, final Class<? extends Enum> enumClazz) {
+        if (object == null) {
+            return null;
+        }
+        if (object.getClass() == enumClazz) {
+            return enumClazz.cast(object);
+        }
+        if (!(object instanceof String)) {
+            return null;
+        }
+        String string = (String) object;
+        try {
+            return Enum.valueOf((Class) enumClazz, string);
+        } catch (IllegalArgumentException exp1) {
+            try {
+                return Enum.valueOf((Class) enumClazz, string.toUpperCase());
+            } catch(IllegalArgumentException exp2) {
+                try {
+                    return Enum.valueOf((Class) enumClazz, string.toLowerCase());
+                } catch(IllegalArgumentException exp3) {
+                    return null;
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> List<E> asList(final Object object) {
         if (object == null || !(object instanceof List)) {
             return Collections.emptyList();
         }
@@ -288,22 +723,18 @@ public final class Configuration {
         }
     }
 
-    public <K, V> Map<K, V> getMap(final String pathUri, final Class<K> keyType, final Class<V> valueType) {
-        final Object object = get(pathUri);
+    @SuppressWarnings("unchecked")
+    private static <K, V> Map<K, V> asMap(final Object object) {
         if (object == null || !(object instanceof Map)) {
             return Collections.emptyMap();
         }
         try {
-            return (Map<K, V>) map;
+            return (Map<K, V>) object;
         } catch (final ClassCastException e) {
             return Collections.emptyMap();
         }
     }
 
-    /*
-     * Helper
-     */
-
     private Configuration findConfiguration(final String[] path, final boolean createIfNotExists) {
         return findConfiguration(path, path.length, createIfNotExists);
     }
@@ -318,6 +749,7 @@ public final class Configuration {
                 if (!createIfNotExists) {
                     return null;
                 }
+                current.ensureMutable();
                 final Configuration tmp = new Configuration();
                 current.map.put(part, tmp);
                 current = tmp;
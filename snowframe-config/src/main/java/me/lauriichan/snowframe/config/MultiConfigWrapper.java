@@ -1,19 +1,93 @@
 package me.lauriichan.snowframe.config;
 
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
-import it.unimi.dsi.fastutil.objects.Object2ObjectArrayMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import it.unimi.dsi.fastutil.objects.ObjectCollection;
 import me.lauriichan.snowframe.SnowFrame;
 
+/**
+ * Keeps one {@link ConfigWrapper} per key, configs can be evicted once they
+ * are idle or the maximum amount of configs is exceeded.<br>
+ * Evicted configs are saved and are no longer tracked, so wrappers and configs
+ * shouldn't be kept around by callers but looked up through
+ * {@link #wrapperOrCreate(Object)} whenever they are needed, changes to an
+ * evicted instance are otherwise lost.<br>
+ * A config is only evicted if it wasn't accessed since it was selected for
+ * eviction, a config that is requested while it is saved for eviction is
+ * revived instead of being loaded again.
+ */
 public final class MultiConfigWrapper<K, T, C extends IConfig, E extends IMultiConfigExtension<K, T, C>>
     implements IConfigWrapper<C> {
 
-    private final Object2ObjectArrayMap<K, ConfigWrapper<C>> configs = new Object2ObjectArrayMap<>();
+    private static final class Slot<C extends IConfig> {
+
+        private static final long EVICTED = Long.MIN_VALUE;
+
+        private final ConfigWrapper<C> wrapper;
+        private final CompletableFuture<Void> loaded = new CompletableFuture<>();
+        private final AtomicLong lastAccess = new AtomicLong(System.nanoTime());
+
+        private Slot(final ConfigWrapper<C> wrapper) {
+            this.wrapper = wrapper;
+        }
+
+        /**
+         * Marks the slot as accessed
+         * 
+         * @return the wrapper or {@code null} if the slot was claimed for eviction
+         */
+        private ConfigWrapper<C> access() {
+            // A config is only handed out once its initial load is done
+            loaded.join();
+            long last;
+            do {
+                last = lastAccess.get();
+                if (last == EVICTED) {
+                    return null;
+                }
+            } while (!lastAccess.compareAndSet(last, System.nanoTime()));
+            return wrapper;
+        }
+
+        private ConfigWrapper<C> revive() {
+            loaded.join();
+            lastAccess.set(System.nanoTime());
+            return wrapper;
+        }
+
+        /**
+         * Claims the slot for eviction, which only succeeds if it wasn't accessed
+         * since the given access time was read
+         */
+        private boolean claim(final long lastAccess) {
+            return lastAccess != EVICTED && this.lastAccess.compareAndSet(lastAccess, EVICTED);
+        }
+
+    }
+
+    private static record Candidate<K, C extends IConfig>(K key, Slot<C> slot, long lastAccess) {}
+
+    private final ConcurrentHashMap<K, Slot<C>> configs = new ConcurrentHashMap<>();
+    // Configs that are currently being saved for eviction, requesting one of them
+    // again revives it instead of loading a second instance from the source
+    private final ConcurrentHashMap<K, Slot<C>> evicting = new ConcurrentHashMap<>();
 
     private final SnowFrame<?> snowFrame;
     private final E extension;
 
+    private volatile long idleTimeout = 0L;
+    private volatile int maxSize = 0;
+
+    private volatile long lastSweep = System.nanoTime();
+    private final AtomicBoolean sweeping = new AtomicBoolean(false);
+
     public MultiConfigWrapper(SnowFrame<?> snowFrame, E extension) {
         this.snowFrame = snowFrame;
         this.extension = extension;
@@ -24,18 +98,55 @@ public final class MultiConfigWrapper<K, T, C extends IConfig, E extends IMultiC
     }
 
     public ConfigWrapper<C> wrapper(T element) {
-        return configs.get(extension.getConfigKey(Objects.requireNonNull(element)));
+        return lookup(extension.getConfigKey(Objects.requireNonNull(element)));
     }
 
     public ConfigWrapper<C> wrapperOrCreate(T element) {
         K key = extension.getConfigKey(Objects.requireNonNull(element));
-        ConfigWrapper<C> wrapper = configs.get(key);
-        if (wrapper == null) {
-            wrapper = new ConfigWrapper<>(snowFrame, extension.create(), extension.path(element));
-            wrapper.reload(false, false);
-            configs.put(key, wrapper);
+        while (true) {
+            ConfigWrapper<C> wrapper = lookup(key);
+            if (wrapper != null) {
+                return wrapper;
+            }
+            // The config is loaded outside of the map so that other keys are never blocked by its IO
+            Slot<C> created = new Slot<>(new ConfigWrapper<>(snowFrame, extension.create(), extension.path(element)));
+            if (configs.putIfAbsent(key, created) != null) {
+                continue;
+            }
+            try {
+                created.wrapper.reload(false, false);
+            } finally {
+                created.loaded.complete(null);
+            }
+            wrapper = created.access();
+            if (wrapper == null) {
+                // Evicted by another sweep before it was handed out
+                continue;
+            }
+            evictIfNeeded();
+            return wrapper;
+        }
+    }
+
+    private ConfigWrapper<C> lookup(K key) {
+        while (true) {
+            Slot<C> slot = configs.get(key);
+            if (slot != null) {
+                ConfigWrapper<C> wrapper = slot.access();
+                if (wrapper != null) {
+                    return wrapper;
+                }
+                // Claimed slots are already removed from the map
+                continue;
+            }
+            Slot<C> evicted = evicting.get(key);
+            if (evicted == null) {
+                return null;
+            }
+            if (configs.putIfAbsent(key, evicted) == null) {
+                return evicted.revive();
+            }
         }
-        return wrapper;
     }
 
     public C config(T element) {
@@ -50,8 +161,16 @@ public final class MultiConfigWrapper<K, T, C extends IConfig, E extends IMultiC
         return wrapperOrCreate(element).config();
     }
 
+    public int size() {
+        return configs.size();
+    }
+
     public ObjectCollection<ConfigWrapper<C>> wrappers() {
-        return configs.values();
+        ObjectArrayList<ConfigWrapper<C>> wrappers = new ObjectArrayList<>(configs.size());
+        for (Slot<C> slot : configs.values()) {
+            wrappers.add(slot.wrapper);
+        }
+        return wrappers;
     }
 
     @Override
@@ -59,6 +178,129 @@ public final class MultiConfigWrapper<K, T, C extends IConfig, E extends IMultiC
         return extension.type();
     }
 
+    /*
+     * Eviction
+     */
+
+    /**
+     * Sets the time after which configs that were not accessed are saved and
+     * dropped, they are created again through {@link #wrapperOrCreate(Object)}
+     * once they are needed.<br>
+     * There is no background task, idle configs are only swept when a config is
+     * created, after {@link #save(boolean)} or when {@link #evict()} is called.
+     * 
+     * @param time the idle time, a value of 0 or less disables idle eviction
+     * @param unit the unit of the idle time
+     */
+    public void evictAfterIdle(long time, TimeUnit unit) {
+        this.idleTimeout = time <= 0 ? 0L : unit.toNanos(time);
+    }
+
+    public long idleTimeout(TimeUnit unit) {
+        return unit.convert(idleTimeout, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Sets the maximum amount of configs that are kept, once exceeded the least
+     * recently accessed configs are saved and dropped
+     * 
+     * @param maxSize the maximum amount of configs, a value of 0 or less disables
+     *                    the limit
+     */
+    public void maxSize(int maxSize) {
+        this.maxSize = Math.max(maxSize, 0);
+    }
+
+    public int maxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Saves and drops all configs that are evictable by the configured policy
+     * 
+     * @return the amount of dropped configs
+     */
+    public int evict() {
+        if (!sweeping.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            long now = System.nanoTime();
+            lastSweep = now;
+            int evicted = 0;
+            long idle = idleTimeout;
+            if (idle != 0L) {
+                for (Map.Entry<K, Slot<C>> entry : configs.entrySet()) {
+                    long lastAccess = entry.getValue().lastAccess.get();
+                    if (now - lastAccess >= idle && evict(entry.getKey(), entry.getValue(), lastAccess)) {
+                        evicted++;
+                    }
+                }
+            }
+            int max = maxSize;
+            if (max == 0 || configs.size() <= max) {
+                return evicted;
+            }
+            // Access times are copied as they could change while sorting
+            ObjectArrayList<Candidate<K, C>> candidates = new ObjectArrayList<>(configs.size());
+            for (Map.Entry<K, Slot<C>> entry : configs.entrySet()) {
+                candidates.add(new Candidate<>(entry.getKey(), entry.getValue(), entry.getValue().lastAccess.get()));
+            }
+            candidates.sort((c1, c2) -> Long.compare(c1.lastAccess(), c2.lastAccess()));
+            // Evict a little more than needed so that not every new config causes a sweep
+            int amount = configs.size() - (max - max / 10);
+            for (int i = 0; i < candidates.size() && amount > 0; i++) {
+                Candidate<K, C> candidate = candidates.get(i);
+                if (evict(candidate.key(), candidate.slot(), candidate.lastAccess())) {
+                    evicted++;
+                    amount--;
+                }
+            }
+            return evicted;
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    private void evictIfNeeded() {
+        int max = maxSize;
+        long idle = idleTimeout;
+        if ((max != 0 && configs.size() > max) || (idle != 0L && System.nanoTime() - lastSweep >= idle)) {
+            evict();
+        }
+    }
+
+    private boolean evict(K key, Slot<C> slot, long lastAccess) {
+        if (!slot.loaded.isDone() || evicting.putIfAbsent(key, slot) != null) {
+            return false;
+        }
+        try {
+            if (!configs.remove(key, slot)) {
+                return false;
+            }
+            // The slot could have been looked up before it was removed, it is only
+            // dropped if it wasn't accessed since it was selected
+            if (!slot.claim(lastAccess)) {
+                configs.putIfAbsent(key, slot);
+                return false;
+            }
+            if (ConfigWrapper.isFailedState(slot.wrapper.saveSingle(false))) {
+                // Keep the config, otherwise its changes would be lost
+                slot.revive();
+                configs.putIfAbsent(key, slot);
+                return false;
+            }
+            // The config could have been requested again while it was saved
+            return configs.get(key) != slot;
+        } finally {
+            evicting.remove(key, slot);
+        }
+    }
+
+    /*
+     * Reload / Save
+     */
+
     @Override
     public int[] reload(final boolean forceReload, final boolean wipeAfterLoad) {
         try {
@@ -66,9 +308,10 @@ public final class MultiConfigWrapper<K, T, C extends IConfig, E extends IMultiC
         } catch (RuntimeException exp) {
             snowFrame.logger().warning("Something went wrong while loading multi config '{0}'", exp, getClass().getName());
         }
+        ObjectCollection<ConfigWrapper<C>> wrappers = wrappers();
         int index = 0;
-        int[] states = new int[configs.size()];
-        for (ConfigWrapper<C> wrapper : configs.values()) {
+        int[] states = new int[wrappers.size()];
+        for (ConfigWrapper<C> wrapper : wrappers) {
             states[index++] = wrapper.reloadSingle(forceReload, wipeAfterLoad);
         }
         return states;
@@ -81,11 +324,14 @@ public final class MultiConfigWrapper<K, T, C extends IConfig, E extends IMultiC
         } catch (RuntimeException exp) {
             snowFrame.logger().warning("Something went wrong while saving multi config '{0}'", exp, getClass().getName());
         }
+        ObjectCollection<ConfigWrapper<C>> wrappers = wrappers();
         int index = 0;
-        int[] states = new int[configs.size()];
-        for (ConfigWrapper<C> wrapper : configs.values()) {
+        int[] states = new int[wrappers.size()];
+        for (ConfigWrapper<C> wrapper : wrappers) {
             states[index++] = wrapper.saveSingle(forceSave);
         }
+        // Everything was just saved, so idle configs can be dropped cheaply
+        evictIfNeeded();
         return states;
     }
 
@@ -127,23 +127,46 @@ public final class JsonConfigHandler implements IConfigHandler {
         }
     }
 
-    @SuppressWarnings("unchecked")
     private IJson<?> serialize(final IOManager ioManager, final Object object) throws SerializationException {
-        if (object instanceof List) {
-            List<?> list = (List<?>) object;
+        if (object == null) {
+            return IJson.of(object);
+        }
+        final JsonValueType type = JsonValueType.of(object);
+        switch (type.kind()) {
+        case LIST:
             final JsonArray array = new JsonArray();
-            for (final Object elem : list) {
+            for (final Object elem : (List<?>) object) {
                 array.add(serialize(ioManager, elem));
             }
             return array;
-        }
-        if (object != null && object.getClass().isEnum()) {
+        case ENUM:
             return IJson.of(object.toString());
-        }
-        try {
+        case CUSTOM:
+            return serializeCustom(ioManager, object);
+        case DYNAMIC:
+            try {
+                return IJson.of(object);
+            } catch (IllegalArgumentException e) {
+                return serializeCustom(ioManager, object);
+            }
+        case UNKNOWN:
+            final IJson<?> json;
+            try {
+                json = IJson.of(object);
+            } catch (IllegalArgumentException e) {
+                // Only ever fails once per type as the value isn't a container
+                type.resolve(false);
+                return serializeCustom(ioManager, object);
+            }
+            type.resolve(true);
+            return json;
+        default:
             return IJson.of(object);
-        } catch (IllegalArgumentException e) {
         }
+    }
+
+    @SuppressWarnings("unchecked")
+    private IJson<?> serializeCustom(final IOManager ioManager, final Object object) throws SerializationException {
         IJson<?> json = (IJson<?>) ioManager.serialize(JsonSerializationHandler.class, object);
         if (json == null) {
             return null;
@@ -0,0 +1,92 @@
+package me.lauriichan.snowframe.config.handler;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+
+import me.lauriichan.laylib.json.IJson;
+
+/**
+ * Caches how values of a class are serialized by the json config handlers so
+ * that the type checks only happen once per class.<br>
+ * Only decisions that depend on the class alone are cached, whether containers
+ * like maps or arrays are supported by the json library depends on their
+ * content and is checked for every value.
+ */
+final class JsonValueType {
+
+    enum Kind {
+        STRING,
+        PRIMITIVE,
+        DECIMAL,
+        CHARACTER,
+        ENUM,
+        LIST,
+        JSON,
+        CUSTOM,
+        DYNAMIC,
+        UNKNOWN
+    }
+
+    private static final ClassValue<JsonValueType> TYPES = new ClassValue<>() {
+        @Override
+        protected JsonValueType computeValue(final Class<?> type) {
+            return new JsonValueType(kindOf(type));
+        }
+    };
+
+    static JsonValueType of(final Object object) {
+        return TYPES.get(object.getClass());
+    }
+
+    private static Kind kindOf(final Class<?> type) {
+        if (type == String.class) {
+            return Kind.STRING;
+        }
+        if (type == Boolean.class || type == Integer.class || type == Long.class || type == Short.class || type == Byte.class
+            || type == BigInteger.class) {
+            return Kind.PRIMITIVE;
+        }
+        if (type == Double.class || type == Float.class) {
+            return Kind.DECIMAL;
+        }
+        if (type == Character.class) {
+            return Kind.CHARACTER;
+        }
+        if (type.isEnum()) {
+            return Kind.ENUM;
+        }
+        if (List.class.isAssignableFrom(type)) {
+            return Kind.LIST;
+        }
+        if (IJson.class.isAssignableFrom(type)) {
+            return Kind.JSON;
+        }
+        if (Map.class.isAssignableFrom(type) || Iterable.class.isAssignableFrom(type) || type.isArray()) {
+            return Kind.DYNAMIC;
+        }
+        return Kind.UNKNOWN;
+    }
+
+    private volatile Kind kind;
+
+    private JsonValueType(final Kind kind) {
+        this.kind = kind;
+    }
+
+    Kind kind() {
+        return kind;
+    }
+
+    /**
+     * Resolves an unknown type once it is known whether the json library
+     * supports its values directly or if they need an io handler, must not be
+     * called for {@link Kind#DYNAMIC} types
+     * 
+     * @param json {@code true} if the values are supported by the json library
+     */
+    void resolve(final boolean json) {
+        this.kind = json ? Kind.JSON : Kind.CUSTOM;
+    }
+
+}
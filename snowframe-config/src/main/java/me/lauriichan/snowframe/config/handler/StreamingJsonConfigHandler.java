@@ -0,0 +1,783 @@
+package me.lauriichan.snowframe.config.handler;
+
+import static me.lauriichan.snowframe.config.handler.JsonConfigHandler.KEY_SERIALIZE_DATA;
+import static me.lauriichan.snowframe.config.handler.JsonConfigHandler.KEY_SERIALIZE_TYPE;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.util.List;
+
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import me.lauriichan.laylib.json.IJson;
+import me.lauriichan.laylib.json.JsonArray;
+import me.lauriichan.laylib.json.JsonObject;
+import me.lauriichan.laylib.json.io.JsonWriter;
+import me.lauriichan.laylib.reflection.ClassUtil;
+import me.lauriichan.snowframe.config.Configuration;
+import me.lauriichan.snowframe.config.IConfigHandler;
+import me.lauriichan.snowframe.io.IOManager;
+import me.lauriichan.snowframe.io.serialization.SerializationException;
+import me.lauriichan.snowframe.io.serialization.json.JsonSerializationHandler;
+import me.lauriichan.snowframe.resource.source.IDataSource;
+
+/**
+ * A json config handler that reads the source directly into a
+ * {@link Configuration} and writes a {@link Configuration} directly to the
+ * source without building an intermediate json tree.
+ *
+ * The produced and accepted format is the same as the one of
+ * {@link JsonConfigHandler}. Only objects that carry a serialized type are
+ * still parsed into a json tree as that is what the serialization handlers
+ * expect. Typed objects are written with their type as first key so that they
+ * can be parsed into a tree right away. Every other nested object is buffered
+ * as tokens until its end, including all objects nested inside of it, as its
+ * type might only be revealed by its last key. The tokens are dropped once the
+ * outermost buffered object turned out to be untyped.
+ */
+public final class StreamingJsonConfigHandler implements IConfigHandler {
+
+    private static final JsonWriter VALUE_WRITER = new JsonWriter().setPretty(false);
+
+    private static final int INDENT = 4;
+
+    public static final StreamingJsonConfigHandler JSON = new StreamingJsonConfigHandler();
+
+    /*
+     * Load
+     */
+
+    @Override
+    public void load(final IOManager ioManager, final Configuration configuration, final IDataSource source, final boolean onlyRaw)
+        throws Exception {
+        final Tokenizer tokenizer;
+        try (BufferedReader reader = source.openReader()) {
+            tokenizer = new Tokenizer(reader, !onlyRaw);
+            if (tokenizer.peek() != '{') {
+                throw new IllegalStateException("Config source doesn't contain a JsonObject");
+            }
+            tokenizer.next();
+            readObject(tokenizer, configuration);
+            if (tokenizer.peek() != -1) {
+                throw tokenizer.error("Unexpected content after root object");
+            }
+        }
+        // Typed objects are only resolved once the whole file was read, as an
+        // outer typed object consumes all typed objects nested inside of it
+        for (final PendingValue pending : tokenizer.pending) {
+            pending.configuration.set(pending.key, deserialize(ioManager, pending.type, pending.json));
+        }
+    }
+
+    private void readObject(final Tokenizer tokenizer, final Configuration configuration) throws IOException {
+        if (tokenizer.peek() == '}') {
+            tokenizer.next();
+            return;
+        }
+        tokenizer.expect('"');
+        final String key = tokenizer.readString();
+        tokenizer.expect(':');
+        readMembers(tokenizer, configuration, key);
+    }
+
+    private void readMembers(final Tokenizer tokenizer, final Configuration configuration, String key) throws IOException {
+        int current;
+        while (true) {
+            current = tokenizer.peek();
+            if (current == '{') {
+                readChild(tokenizer, configuration, key);
+            } else if (current == '[') {
+                tokenizer.next();
+                configuration.set(key, readArray(tokenizer));
+            } else {
+                final Object value = tokenizer.readPrimitive();
+                if (value != null) {
+                    configuration.set(key, value);
+                }
+            }
+            current = tokenizer.next();
+            if (current == ',') {
+                tokenizer.expect('"');
+                key = tokenizer.readString();
+                tokenizer.expect(':');
+                continue;
+            }
+            if (current == '}') {
+                return;
+            }
+            throw tokenizer.error("Expected ',' or '}'");
+        }
+    }
+
+    private void readChild(final Tokenizer tokenizer, final Configuration configuration, final String key) throws IOException {
+        if (!tokenizer.capturing) {
+            tokenizer.next();
+            readObject(tokenizer, configuration.getConfiguration(key, true));
+            return;
+        }
+        final int pendingMark = tokenizer.pending.size();
+        final int start = tokenizer.beginRecord();
+        tokenizer.next();
+        if (tokenizer.peek() == '}') {
+            tokenizer.next();
+            tokenizer.endRecord(start, false);
+            configuration.getConfiguration(key, true);
+            return;
+        }
+        tokenizer.expect('"');
+        final String firstKey = tokenizer.readString();
+        tokenizer.expect(':');
+        if (KEY_SERIALIZE_TYPE.equals(firstKey) && tokenizer.peek() == '"') {
+            // The type is known up front so the object is read into a json tree directly
+            tokenizer.endRecord(start, false);
+            tokenizer.next();
+            final String type = tokenizer.readString();
+            final JsonObject object = new JsonObject();
+            object.put(KEY_SERIALIZE_TYPE, type);
+            tokenizer.readJsonMembers(object);
+            tokenizer.pending.add(new PendingValue(configuration, key, type, object));
+            return;
+        }
+        final Configuration child = configuration.getConfiguration(key, true);
+        readMembers(tokenizer, child, firstKey);
+        if (!(child.get(KEY_SERIALIZE_TYPE) instanceof String type)) {
+            tokenizer.endRecord(start, false);
+            return;
+        }
+        // Everything typed inside of this object is part of its serialized data
+        tokenizer.pending.size(pendingMark);
+        tokenizer.pending.add(new PendingValue(configuration, key, type, tokenizer.endRecord(start, true).asJsonObject()));
+    }
+
+    @SuppressWarnings({
+        "rawtypes",
+        "unchecked"
+    })
+    private List readArray(final Tokenizer tokenizer) throws IOException {
+        final ObjectArrayList list = new ObjectArrayList();
+        if (tokenizer.peek() == ']') {
+            tokenizer.next();
+            return list;
+        }
+        int current;
+        while (true) {
+            current = tokenizer.peek();
+            if (current == '{') {
+                // Objects inside of arrays are not supported by configurations
+                tokenizer.skipValue();
+            } else if (current == '[') {
+                tokenizer.next();
+                list.add(readArray(tokenizer));
+            } else {
+                final Object value = tokenizer.readPrimitive();
+                if (value != null) {
+                    list.add(value);
+                }
+            }
+            current = tokenizer.next();
+            if (current == ',') {
+                continue;
+            }
+            if (current == ']') {
+                return list;
+            }
+            throw tokenizer.error("Expected ',' or ']'");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object deserialize(final IOManager ioManager, final String type, final JsonObject object) throws Exception {
+        final Class<?> valueType = ClassUtil.findClass(type);
+        if (valueType == null) {
+            throw new SerializationException("Can't read unknown serialized object of type '" + type + "', reason: Type is unknown");
+        }
+        final IJson<?> json = object.get(KEY_SERIALIZE_DATA);
+        return ioManager.deserialize(JsonSerializationHandler.class, json == null ? object : json, valueType);
+    }
+
+    /*
+     * Save
+     */
+
+    @Override
+    public void save(final IOManager ioManager, final Configuration configuration, final IDataSource source) throws Exception {
+        try (BufferedWriter writer = source.openWriter()) {
+            writeObject(ioManager, writer, configuration, 0);
+        }
+    }
+
+    private void writeObject(final IOManager ioManager, final Writer writer, final Configuration configuration, final int depth)
+        throws Exception {
+        writer.write('{');
+        boolean empty = true;
+        Object value;
+        for (final String key : configuration.keySet()) {
+            value = configuration.get(key);
+            if (value instanceof Configuration child) {
+                empty = writeSeparator(writer, empty, depth + 1);
+                writeString(writer, key);
+                writer.write(": ");
+                writeObject(ioManager, writer, child, depth + 1);
+                continue;
+            }
+            if (value instanceof List<?> list) {
+                empty = writeSeparator(writer, empty, depth + 1);
+                writeString(writer, key);
+                writer.write(": ");
+                writeArray(ioManager, writer, list, depth + 1);
+                continue;
+            }
+            final String json = serialize(ioManager, value);
+            if (json == null) {
+                continue;
+            }
+            empty = writeSeparator(writer, empty, depth + 1);
+            writeString(writer, key);
+            writer.write(": ");
+            writer.write(json);
+        }
+        if (!empty) {
+            writeIndent(writer, depth);
+        }
+        writer.write('}');
+    }
+
+    private void writeArray(final IOManager ioManager, final Writer writer, final List<?> list, final int depth) throws Exception {
+        writer.write('[');
+        boolean empty = true;
+        for (final Object value : list) {
+            empty = writeSeparator(writer, empty, depth + 1);
+            if (value instanceof List<?> child) {
+                writeArray(ioManager, writer, child, depth + 1);
+                continue;
+            }
+            final String json = serialize(ioManager, value);
+            writer.write(json == null ? "null" : json);
+        }
+        if (!empty) {
+            writeIndent(writer, depth);
+        }
+        writer.write(']');
+    }
+
+    private boolean writeSeparator(final Writer writer, final boolean first, final int depth) throws IOException {
+        if (!first) {
+            writer.write(',');
+        }
+        writeIndent(writer, depth);
+        return false;
+    }
+
+    private void writeIndent(final Writer writer, final int depth) throws IOException {
+        writer.write('\n');
+        for (int i = depth * INDENT; i > 0; i--) {
+            writer.write(' ');
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private String serialize(final IOManager ioManager, final Object object) throws Exception {
+        if (object == null) {
+            return null;
+        }
+        final JsonValueType type = JsonValueType.of(object);
+        IJson<?> json = null;
+        switch (type.kind()) {
+        case STRING:
+            return quote((String) object);
+        case PRIMITIVE:
+            return object.toString();
+        case DECIMAL:
+            final double value = ((Number) object).doubleValue();
+            return Double.isFinite(value) ? object.toString() : "null";
+        case CHARACTER:
+        case ENUM:
+            return quote(object.toString());
+        case JSON:
+            json = IJson.of(object);
+            break;
+        case DYNAMIC:
+            try {
+                json = IJson.of(object);
+            } catch (IllegalArgumentException e) {
+                // Containers are only supported if their content is
+            }
+            break;
+        case UNKNOWN:
+            try {
+                json = IJson.of(object);
+                type.resolve(true);
+            } catch (IllegalArgumentException e) {
+                // Only ever fails once per type as the value isn't a container
+                type.resolve(false);
+            }
+            break;
+        default:
+            break;
+        }
+        if (json == null) {
+            json = (IJson<?>) ioManager.serialize(JsonSerializationHandler.class, object);
+            if (json == null) {
+                return null;
+            }
+            // The type is written first so that it is known before the data is read
+            final JsonObject jsonObject = new JsonObject();
+            jsonObject.put(KEY_SERIALIZE_TYPE, object.getClass().getName());
+            if (json.isObject()) {
+                final JsonObject dataObject = json.asJsonObject();
+                for (final String key : dataObject.keySet()) {
+                    if (!KEY_SERIALIZE_TYPE.equals(key)) {
+                        jsonObject.put(key, dataObject.get(key));
+                    }
+                }
+            } else {
+                jsonObject.put(KEY_SERIALIZE_DATA, json);
+            }
+            json = jsonObject;
+        }
+        final StringWriter output = new StringWriter();
+        try (BufferedWriter writer = new BufferedWriter(output)) {
+            VALUE_WRITER.toWriter(json, writer);
+        }
+        return output.toString();
+    }
+
+    private String quote(final String string) {
+        final StringBuilder builder = new StringBuilder(string.length() + 2);
+        builder.append('"');
+        char character;
+        for (int index = 0; index < string.length(); index++) {
+            character = string.charAt(index);
+            switch (character) {
+            case '"':
+                builder.append("\\\"");
+                break;
+            case '\\':
+                builder.append("\\\\");
+                break;
+            case '\n':
+                builder.append("\\n");
+                break;
+            case '\r':
+                builder.append("\\r");
+                break;
+            case '\t':
+                builder.append("\\t");
+                break;
+            case '\b':
+                builder.append("\\b");
+                break;
+            case '\f':
+                builder.append("\\f");
+                break;
+            default:
+                if (character < 0x20) {
+                    builder.append(String.format("\\u%04x", (int) character));
+                    break;
+                }
+                builder.append(character);
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    private void writeString(final Writer writer, final String string) throws IOException {
+        writer.write(quote(string));
+    }
+
+    /*
+     * Tokenizer
+     */
+
+    private static record PendingValue(Configuration configuration, String key, String type, JsonObject json) {}
+
+    private static final Object OBJECT_START = new Object();
+    private static final Object OBJECT_END = new Object();
+    private static final Object ARRAY_START = new Object();
+    private static final Object ARRAY_END = new Object();
+    private static final Object NULL = new Object();
+
+    /**
+     * Rebuilds a json tree from recorded tokens, keys and values of an object
+     * simply follow each other as separators aren't recorded.
+     */
+    private static final class TokenReader {
+
+        private final List<Object> tokens;
+        private int position = 0;
+
+        private TokenReader(final List<Object> tokens) {
+            this.tokens = tokens;
+        }
+
+        private IJson<?> read() {
+            final Object token = tokens.get(position++);
+            if (token == OBJECT_START) {
+                final JsonObject object = new JsonObject();
+                while (tokens.get(position) != OBJECT_END) {
+                    final String key = (String) tokens.get(position++);
+                    object.put(key, read());
+                }
+                position++;
+                return object;
+            }
+            if (token == ARRAY_START) {
+                final JsonArray array = new JsonArray();
+                while (tokens.get(position) != ARRAY_END) {
+                    array.add(read());
+                }
+                position++;
+                return array;
+            }
+            return IJson.of(token == NULL ? null : token);
+        }
+
+    }
+
+    private static final class Tokenizer {
+
+        private final Reader reader;
+        private final char[] buffer = new char[8192];
+        private int position, limit;
+
+        private int line = 1;
+
+        private final boolean capturing;
+        private final ObjectArrayList<Object> tokens;
+        private int recordDepth = 0;
+
+        private final ObjectArrayList<PendingValue> pending = new ObjectArrayList<>();
+
+        private final StringBuilder text = new StringBuilder();
+
+        private Tokenizer(final Reader reader, final boolean capturing) {
+            this.reader = reader;
+            this.capturing = capturing;
+            this.tokens = capturing ? new ObjectArrayList<>() : null;
+        }
+
+        /*
+         * Record
+         */
+
+        private int beginRecord() {
+            recordDepth++;
+            return tokens.size();
+        }
+
+        private IJson<?> endRecord(final int start, final boolean keep) {
+            final IJson<?> value = keep ? new TokenReader(tokens.subList(start, tokens.size())).read() : null;
+            if (--recordDepth == 0) {
+                tokens.clear();
+            }
+            return value;
+        }
+
+        private void record(final Object token) {
+            if (recordDepth != 0) {
+                tokens.add(token == null ? NULL : token);
+            }
+        }
+
+        /*
+         * Reading
+         */
+
+        private boolean fill() throws IOException {
+            if (position < limit) {
+                return true;
+            }
+            final int amount = reader.read(buffer);
+            if (amount <= 0) {
+                return false;
+            }
+            position = 0;
+            limit = amount;
+            return true;
+        }
+
+        private int read() throws IOException {
+            if (!fill()) {
+                return -1;
+            }
+            final char character = buffer[position++];
+            if (character == '\n') {
+                line++;
+            }
+            return character;
+        }
+
+        private int peekRaw() throws IOException {
+            if (!fill()) {
+                return -1;
+            }
+            return buffer[position];
+        }
+
+        int peek() throws IOException {
+            int current;
+            while ((current = peekRaw()) != -1) {
+                if (current != ' ' && current != '\n' && current != '\r' && current != '\t') {
+                    return current;
+                }
+                read();
+            }
+            return -1;
+        }
+
+        int next() throws IOException {
+            peek();
+            final int current = read();
+            if (recordDepth != 0) {
+                switch (current) {
+                case '{':
+                    tokens.add(OBJECT_START);
+                    break;
+                case '}':
+                    tokens.add(OBJECT_END);
+                    break;
+                case '[':
+                    tokens.add(ARRAY_START);
+                    break;
+                case ']':
+                    tokens.add(ARRAY_END);
+                    break;
+                default:
+                    break;
+                }
+            }
+            return current;
+        }
+
+        void expect(final char expected) throws IOException {
+            if (next() != expected) {
+                throw error("Expected '" + expected + "'");
+            }
+        }
+
+        IllegalStateException error(final String message) {
+            return new IllegalStateException(message + " at line " + line);
+        }
+
+        /*
+         * Values
+         */
+
+        String readString() throws IOException {
+            text.setLength(0);
+            int current;
+            while ((current = read()) != '"') {
+                if (current == -1) {
+                    throw error("Unterminated string");
+                }
+                if (current != '\\') {
+                    text.append((char) current);
+                    continue;
+                }
+                switch (current = read()) {
+                case '"':
+                case '\\':
+                case '/':
+                    text.append((char) current);
+                    break;
+                case 'n':
+                    text.append('\n');
+                    break;
+                case 'r':
+                    text.append('\r');
+                    break;
+                case 't':
+                    text.append('\t');
+                    break;
+                case 'b':
+                    text.append('\b');
+                    break;
+                case 'f':
+                    text.append('\f');
+                    break;
+                case 'u':
+                    int value = 0;
+                    for (int i = 0; i < 4; i++) {
+                        final int digit = Character.digit(read(), 16);
+                        if (digit == -1) {
+                            throw error("Invalid unicode escape");
+                        }
+                        value = (value << 4) | digit;
+                    }
+                    text.append((char) value);
+                    break;
+                default:
+                    throw error("Invalid escape sequence");
+                }
+            }
+            final String string = text.toString();
+            record(string);
+            return string;
+        }
+
+        Object readPrimitive() throws IOException {
+            final int current = peek();
+            if (current == '"') {
+                read();
+                return readString();
+            }
+            final Object value;
+            if (current == '-' || (current >= '0' && current <= '9')) {
+                value = readNumber();
+            } else {
+                final String literal = readLiteral();
+                switch (literal) {
+                case "true":
+                    value = Boolean.TRUE;
+                    break;
+                case "false":
+                    value = Boolean.FALSE;
+                    break;
+                case "null":
+                    value = null;
+                    break;
+                default:
+                    throw error("Unexpected value '" + literal + "'");
+                }
+            }
+            record(value);
+            return value;
+        }
+
+        IJson<?> readJson() throws IOException {
+            final int current = peek();
+            if (current == '{') {
+                next();
+                final JsonObject object = new JsonObject();
+                if (peek() == '}') {
+                    next();
+                    return object;
+                }
+                expect('"');
+                final String key = readString();
+                expect(':');
+                object.put(key, readJson());
+                return readJsonMembers(object);
+            }
+            if (current == '[') {
+                next();
+                final JsonArray array = new JsonArray();
+                if (peek() == ']') {
+                    next();
+                    return array;
+                }
+                int state;
+                do {
+                    array.add(readJson());
+                } while ((state = next()) == ',');
+                if (state != ']') {
+                    throw error("Expected ',' or ']'");
+                }
+                return array;
+            }
+            if (current == -1) {
+                throw error("Unexpected end of source");
+            }
+            return IJson.of(readPrimitive());
+        }
+
+        JsonObject readJsonMembers(final JsonObject object) throws IOException {
+            int current;
+            while ((current = next()) == ',') {
+                expect('"');
+                final String key = readString();
+                expect(':');
+                object.put(key, readJson());
+            }
+            if (current != '}') {
+                throw error("Expected ',' or '}'");
+            }
+            return object;
+        }
+
+        private String readLiteral() throws IOException {
+            text.setLength(0);
+            int current;
+            while ((current = peekRaw()) >= 'a' && current <= 'z') {
+                text.append((char) read());
+            }
+            return text.toString();
+        }
+
+        private Number readNumber() throws IOException {
+            text.setLength(0);
+            boolean decimal = false;
+            int current;
+            while ((current = peekRaw()) != -1) {
+                if (current == '.' || current == 'e' || current == 'E') {
+                    decimal = true;
+                } else if (current != '-' && current != '+' && (current < '0' || current > '9')) {
+                    break;
+                }
+                text.append((char) read());
+            }
+            final String number = text.toString();
+            try {
+                if (decimal) {
+                    return Double.valueOf(number);
+                }
+                if (number.length() < 19) {
+                    final long value = Long.parseLong(number);
+                    if (value == (int) value) {
+                        return (int) value;
+                    }
+                    return value;
+                }
+                final BigInteger value = new BigInteger(number);
+                return value.bitLength() < 64 ? (Number) value.longValue() : value;
+            } catch (NumberFormatException e) {
+                throw error("Invalid number '" + number + "'");
+            }
+        }
+
+        void skipValue() throws IOException {
+            int current = next();
+            if (current == '{') {
+                if (peek() == '}') {
+                    next();
+                    return;
+                }
+                do {
+                    expect('"');
+                    readString();
+                    expect(':');
+                    skipValue();
+                } while ((current = next()) == ',');
+                if (current != '}') {
+                    throw error("Expected ',' or '}'");
+                }
+                return;
+            }
+            if (current == '[') {
+                if (peek() == ']') {
+                    next();
+                    return;
+                }
+                do {
+                    skipValue();
+                } while ((current = next()) == ',');
+                if (current != ']') {
+                    throw error("Expected ',' or ']'");
+                }
+                return;
+            }
+            if (current == -1) {
+                throw error("Unexpected end of source");
+            }
+            // Step back onto the primitive so that it can be read as a whole
+            position--;
+            readPrimitive();
+        }
+
+    }
+
+}
@@ -20,6 +20,7 @@ import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import me.lauriichan.laylib.logger.ISimpleLogger;
 import me.lauriichan.maven.sourcemod.api.ISourceTransformer;
 import me.lauriichan.snowframe.config.Config;
+import me.lauriichan.snowframe.config.ConfigPath;
 import me.lauriichan.snowframe.config.ConfigValue;
 import me.lauriichan.snowframe.config.ConfigValueValidator;
 import me.lauriichan.snowframe.config.Configuration;
@@ -55,6 +56,9 @@ public class ConfigSourceTransformer implements ISourceTransformer {
         }
         importClass(clazz, ISimpleLogger.class);
         importClass(clazz, Configuration.class);
+        if (automatic) {
+            importClass(clazz, ConfigPath.class);
+        }
         
         Object2ObjectArrayMap<String, ObjectArrayList<MethodSource<JavaClassSource>>> validators = new Object2ObjectArrayMap<>();
         final List<MethodSource<JavaClassSource>> methods = clazz.getMethods();
@@ -174,6 +178,9 @@ public class ConfigSourceTransformer implements ISourceTransformer {
                 }
                 """);
             if (automatic) {
+                // Paths are parsed once per class instead of on every load and save
+                final String pathField = "generatedPath$" + field.getName();
+                clazz.addField("private static final ConfigPath %1$s = ConfigPath.of(\"%2$s\");".formatted(pathField, configField.name()));
                 if (index != 0) {
                     loadBuilder.append('\n');
                 }
@@ -214,7 +221,7 @@ public class ConfigSourceTransformer implements ISourceTransformer {
                 } else if (type.isType(Map.class)) {
                     loadBuilder.append("Map");
                 }
-                loadBuilder.append("(\"").append(configField.name).append('"');
+                loadBuilder.append('(').append(pathField);
                 if (!primitive) {
                     if (type.isType(List.class)) {
                         loadBuilder.append(", ").append(type.getTypeArguments().get(0).getQualifiedName()).append(".class");
@@ -234,10 +241,12 @@ public class ConfigSourceTransformer implements ISourceTransformer {
                     }
                 }
                 loadBuilder.append(");");
-                saveBuilder.append("configuration.set(\"").append(configField.name).append("\", this.").append(field.getName())
-                    .append(");");
-                propergateBuilder.append("configuration.set(\"").append(configField.name).append("\", this.generatedDefault$").append(field.getName())
+                // Primitive setters write into the primitive slots of the configuration without boxing
+                final String setter = primitiveSetter(type);
+                saveBuilder.append("configuration.").append(setter).append('(').append(pathField).append(", this.").append(field.getName())
                     .append(");");
+                propergateBuilder.append("configuration.").append(setter).append('(').append(pathField).append(", this.generatedDefault$")
+                    .append(field.getName()).append(");");
             }
         }
         if (needObjectsImport) {
@@ -289,6 +298,19 @@ public class ConfigSourceTransformer implements ISourceTransformer {
         clazz.addMethod(propergateBuilder.append("\n}").toString());
     }
 
+    private String primitiveSetter(final Type<JavaClassSource> type) {
+        if (type.isType(boolean.class)) {
+            return "setBoolean";
+        } else if (type.isType(int.class)) {
+            return "setInt";
+        } else if (type.isType(long.class)) {
+            return "setLong";
+        } else if (type.isType(double.class)) {
+            return "setDouble";
+        }
+        return "set";
+    }
+
     private void addFieldMethod(final JavaClassSource source, final FieldSource<JavaClassSource> field, final String content) {
         source.addMethod(content.formatted(field.getName(), field.getType().getQualifiedNameWithGenerics()));
     }
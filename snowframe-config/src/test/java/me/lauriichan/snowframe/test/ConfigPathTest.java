@@ -0,0 +1,89 @@
+package me.lauriichan.snowframe.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import me.lauriichan.snowframe.config.ConfigPath;
+import me.lauriichan.snowframe.config.Configuration;
+
+public class ConfigPathTest {
+
+    @Test
+    public void testSplitsPathIntoSegments() {
+        final ConfigPath path = ConfigPath.of("a.bb.ccc");
+        assertEquals("a.bb.ccc", path.path());
+        assertEquals("a.bb.ccc", path.toString());
+        assertEquals(3, path.length());
+        assertTrue(path.isNested());
+        assertEquals("a", path.segment(0));
+        assertEquals("bb", path.segment(1));
+        assertEquals("ccc", path.last());
+
+        final ConfigPath single = ConfigPath.of("value");
+        assertEquals(1, single.length());
+        assertFalse(single.isNested());
+        assertEquals("value", single.last());
+
+        // Empty segments are kept just like the string based lookups do
+        final ConfigPath empty = ConfigPath.of("a..b.");
+        assertEquals(4, empty.length());
+        assertEquals("", empty.segment(1));
+        assertEquals("", empty.last());
+    }
+
+    @Test
+    public void testSegmentsAreValidated() {
+        assertThrows(IllegalArgumentException.class, () -> ConfigPath.of(new String[0]));
+        assertThrows(IllegalArgumentException.class, () -> ConfigPath.of("a", null));
+        assertThrows(IllegalArgumentException.class, () -> ConfigPath.of("a", "b.c"));
+        assertThrows(NullPointerException.class, () -> ConfigPath.of((String) null));
+
+        final String[] segments = {
+            "a",
+            "b"
+        };
+        final ConfigPath path = ConfigPath.of(segments);
+        // The segments are copied so that the path can't be changed afterwards
+        segments[1] = "c";
+        assertEquals("a.b", path.path());
+        assertEquals("b", path.last());
+    }
+
+    @Test
+    public void testEqualityUsesSegments() {
+        final ConfigPath split = ConfigPath.of("a.b");
+        final ConfigPath joined = ConfigPath.of("a", "b");
+        assertEquals(split, joined);
+        assertEquals(split.hashCode(), joined.hashCode());
+        assertNotEquals(split, ConfigPath.of("a"));
+        assertNotEquals(split, ConfigPath.of("a", "b", "c"));
+        assertNotEquals(split, "a.b");
+    }
+
+    @Test
+    public void testPathsAndStringsAddressSameValues() {
+        final Configuration configuration = new Configuration();
+        final ConfigPath amount = ConfigPath.of("nested.amount");
+        final ConfigPath name = ConfigPath.of("nested", "name");
+        configuration.setInt(amount, 12);
+        configuration.set(name, "test");
+        configuration.setBoolean(ConfigPath.of("flag"), true);
+        configuration.setDouble("nested.deeper.ratio", 0.5d);
+
+        assertEquals(12, configuration.getInt("nested.amount"));
+        assertEquals("test", configuration.get("nested.name", String.class));
+        assertTrue(configuration.getBoolean("flag"));
+        assertEquals(0.5d, configuration.getDouble(ConfigPath.of("nested.deeper.ratio")));
+        assertTrue(configuration.isConfiguration(ConfigPath.of("nested")));
+        assertTrue(configuration.contains(amount));
+        assertTrue(configuration.contains(name, String.class));
+        assertFalse(configuration.contains(ConfigPath.of("nested.missing")));
+        assertEquals(3, configuration.getInt(ConfigPath.of("nested.missing"), 3));
+
+        configuration.remove(amount);
+        assertFalse(configuration.contains("nested.amount"));
+        assertEquals("test", configuration.get(name, String.class));
+    }
+
+}
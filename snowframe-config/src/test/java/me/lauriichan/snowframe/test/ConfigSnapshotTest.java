@@ -0,0 +1,138 @@
+package me.lauriichan.snowframe.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import me.lauriichan.laylib.logger.ISimpleLogger;
+import me.lauriichan.snowframe.SnowFrame;
+import me.lauriichan.snowframe.config.ConfigWrapper;
+import me.lauriichan.snowframe.config.Configuration;
+import me.lauriichan.snowframe.config.IConfig;
+import me.lauriichan.snowframe.config.IConfigHandler;
+import me.lauriichan.snowframe.config.handler.JsonConfigHandler;
+import me.lauriichan.snowframe.io.IOManager;
+import me.lauriichan.snowframe.resource.source.IDataSource;
+
+public class ConfigSnapshotTest {
+
+    private static final class CountingHandler implements IConfigHandler {
+
+        private int loads = 0;
+
+        @Override
+        public void load(final IOManager ioManager, final Configuration configuration, final IDataSource source, final boolean onlyRaw)
+            throws Exception {
+            loads++;
+            JsonConfigHandler.JSON.load(ioManager, configuration, source, onlyRaw);
+        }
+
+        @Override
+        public void save(final IOManager ioManager, final Configuration configuration, final IDataSource source) throws Exception {
+            JsonConfigHandler.JSON.save(ioManager, configuration, source);
+        }
+
+    }
+
+    private static final class TestConfig implements IConfig {
+
+        private final CountingHandler handler = new CountingHandler();
+
+        private String value;
+
+        @Override
+        public IConfigHandler handler() {
+            return handler;
+        }
+
+        @Override
+        public void onLoad(final ISimpleLogger logger, final Configuration configuration) throws Exception {
+            value = configuration.get("value", String.class);
+        }
+
+        @Override
+        public void onSave(final ISimpleLogger logger, final Configuration configuration) throws Exception {
+            configuration.set("value", value == null ? "aaaa" : value);
+            configuration.set("added", 42);
+        }
+
+    }
+
+    private static SnowFrame<TestApp> snowFrame;
+
+    @BeforeAll
+    public static void start() {
+        snowFrame = TestApp.start();
+    }
+
+    private static TestConfig load(final Path file) {
+        final TestConfig config = new TestConfig();
+        final ConfigWrapper<TestConfig> wrapper = new ConfigWrapper<>(snowFrame, config, "fs://" + file.toAbsolutePath());
+        wrapper.snapshotCache(true);
+        assertFalse(ConfigWrapper.isFailedState(wrapper.reloadSingle(false, false)));
+        assertEquals(42, wrapper.view().getInt("added"));
+        return config;
+    }
+
+    private static Path snapshot(final Path file) {
+        return file.resolveSibling('.' + file.getFileName().toString() + ".snapshot");
+    }
+
+    @Test
+    public void testRewrittenSourceUsesSnapshot(@TempDir final Path directory) throws Exception {
+        final Path file = directory.resolve("config.json");
+        // The source is missing the default value and therefore rewritten after it was parsed
+        Files.writeString(file, "{\"value\": \"bbbb\"}");
+        final TestConfig first = load(file);
+        assertEquals(1, first.handler.loads);
+        assertEquals("bbbb", first.value);
+        assertTrue(Files.readString(file).contains("added"));
+        assertTrue(Files.isRegularFile(snapshot(file)));
+
+        final TestConfig second = load(file);
+        assertEquals(0, second.handler.loads);
+        assertEquals("bbbb", second.value);
+    }
+
+    @Test
+    public void testSameSizeEditInvalidatesSnapshot(@TempDir final Path directory) throws Exception {
+        final Path file = directory.resolve("config.json");
+        // The missing source is written from the defaults, the second load uses the snapshot
+        assertEquals(0, load(file).handler.loads);
+        assertEquals("aaaa", load(file).value);
+
+        // Same size and modification time, only the content differs
+        final FileTime modified = Files.getLastModifiedTime(file);
+        final String content = Files.readString(file);
+        assertTrue(content.contains("aaaa"));
+        Files.writeString(file, content.replace("aaaa", "cccc"));
+        Files.setLastModifiedTime(file, modified);
+
+        final TestConfig config = load(file);
+        assertEquals(1, config.handler.loads);
+        assertEquals("cccc", config.value);
+    }
+
+    @Test
+    public void testBrokenSnapshotFallsBackToSource(@TempDir final Path directory) throws Exception {
+        final Path file = directory.resolve("config.json");
+        load(file);
+        final Path snapshot = snapshot(file);
+        final byte[] bytes = Files.readAllBytes(snapshot);
+        Files.write(snapshot, Arrays.copyOf(bytes, bytes.length / 2));
+
+        final TestConfig config = load(file);
+        assertEquals(1, config.handler.loads);
+        assertEquals("aaaa", config.value);
+        // The snapshot is replaced after the source was parsed even though nothing was written
+        assertEquals(0, load(file).handler.loads);
+    }
+
+}
@@ -0,0 +1,218 @@
+package me.lauriichan.snowframe.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.jboss.forge.roaster.Roaster;
+import org.jboss.forge.roaster.model.source.FieldSource;
+import org.jboss.forge.roaster.model.source.JavaClassSource;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectLinkedOpenHashSet;
+import me.lauriichan.laylib.logger.ISimpleLogger;
+import me.lauriichan.snowframe.config.ConfigPath;
+import me.lauriichan.snowframe.config.Configuration;
+import me.lauriichan.snowframe.config.IConfig;
+import me.lauriichan.snowframe.extension.IExtension;
+import me.lauriichan.snowframe.io.IOManager;
+import me.lauriichan.snowframe.maven.ConfigSourceTransformer;
+import me.lauriichan.snowframe.util.logger.SysOutSimpleLogger;
+
+public class ConfigSourceTransformerTest {
+
+    private static final String AUTOMATIC_CONFIG = """
+        package generated;
+
+        import java.util.List;
+
+        import me.lauriichan.snowframe.config.Config;
+        import me.lauriichan.snowframe.config.ConfigValue;
+        import me.lauriichan.snowframe.config.IConfig;
+        import me.lauriichan.snowframe.config.IConfigHandler;
+        import me.lauriichan.snowframe.config.handler.JsonConfigHandler;
+
+        @Config(automatic = true)
+        public class AutomaticConfig implements IConfig {
+
+            @ConfigValue("nested.amount")
+            private int amount = 3;
+
+            @ConfigValue("name")
+            private String name = "default";
+
+            @ConfigValue("nested.deeper.enabled")
+            private boolean enabled = true;
+
+            @ConfigValue("tags")
+            private List<String> tags = List.of("a");
+
+            @Override
+            public IConfigHandler handler() {
+                return JsonConfigHandler.JSON;
+            }
+
+        }
+        """;
+
+    private static final String MANUAL_CONFIG = """
+        package generated;
+
+        import me.lauriichan.snowframe.config.Config;
+        import me.lauriichan.snowframe.config.ConfigValue;
+        import me.lauriichan.snowframe.config.IConfig;
+        import me.lauriichan.snowframe.config.IConfigHandler;
+        import me.lauriichan.snowframe.config.handler.JsonConfigHandler;
+
+        @Config
+        public class ManualConfig implements IConfig {
+
+            @ConfigValue("nested.amount")
+            private int amount = 3;
+
+            @Override
+            public IConfigHandler handler() {
+                return JsonConfigHandler.JSON;
+            }
+
+        }
+        """;
+
+    private static String location(final Class<?> type) throws URISyntaxException {
+        return new File(type.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+    }
+
+    private static JavaClassSource transform(final String source) {
+        final JavaClassSource clazz = Roaster.parse(JavaClassSource.class, source);
+        final ConfigSourceTransformer transformer = new ConfigSourceTransformer();
+        assertTrue(transformer.canTransform(clazz));
+        transformer.transform(clazz);
+        return clazz;
+    }
+
+    private static Class<?> compile(final Path directory, final JavaClassSource clazz) throws Exception {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Assumptions.assumeTrue(compiler != null, "No java compiler available");
+        final Path sourceFile = directory.resolve(clazz.getName() + ".java");
+        Files.writeString(sourceFile, clazz.toString());
+        final Path output = Files.createDirectories(directory.resolve("classes"));
+        final ObjectLinkedOpenHashSet<String> classPath = new ObjectLinkedOpenHashSet<>();
+        for (final Class<?> type : new Class<?>[] {
+            ConfigPath.class,
+            IExtension.class,
+            IOManager.class,
+            ObjectArrayList.class,
+            ISimpleLogger.class
+        }) {
+            classPath.add(location(type));
+        }
+        final StringWriter errors = new StringWriter();
+        final boolean compiled = compiler.getTask(errors, null, null,
+            List.of("-proc:none", "-d", output.toString(), "-cp", String.join(File.pathSeparator, classPath)), null,
+            compiler.getStandardFileManager(null, null, null).getJavaFileObjects(sourceFile.toFile())).call();
+        assertTrue(compiled, () -> errors + "\n" + clazz);
+
+        final URLClassLoader loader = new URLClassLoader(new URL[] {
+            output.toUri().toURL()
+        }, ConfigSourceTransformerTest.class.getClassLoader());
+        return loader.loadClass(clazz.getQualifiedName());
+    }
+
+    private static ConfigPath path(final Class<?> type, final String field) throws Exception {
+        final Field pathField = type.getDeclaredField("generatedPath$" + field);
+        assertTrue(Modifier.isStatic(pathField.getModifiers()));
+        assertTrue(Modifier.isFinal(pathField.getModifiers()));
+        pathField.setAccessible(true);
+        return (ConfigPath) pathField.get(null);
+    }
+
+    @Test
+    public void testAutomaticConfigUsesPathConstants() {
+        final JavaClassSource clazz = transform(AUTOMATIC_CONFIG);
+        assertTrue(clazz.hasImport(ConfigPath.class));
+        for (final String field : new String[] {
+            "amount",
+            "name",
+            "enabled",
+            "tags"
+        }) {
+            final FieldSource<JavaClassSource> pathField = clazz.getField("generatedPath$" + field);
+            assertNotNull(pathField, field);
+            assertTrue(pathField.isStatic());
+            assertTrue(pathField.isFinal());
+            assertEquals("ConfigPath", pathField.getType().getName());
+        }
+        assertEquals("ConfigPath.of(\"nested.amount\")", clazz.getField("generatedPath$amount").getLiteralInitializer());
+        // The generated methods look the values up by their constants instead of parsing the paths again
+        final String load = clazz.getMethod("onLoad", ISimpleLogger.class, Configuration.class).getBody();
+        final String save = clazz.getMethod("onSave", ISimpleLogger.class, Configuration.class).getBody();
+        assertTrue(load.contains("getInt(generatedPath$amount"), load);
+        assertTrue(save.contains("setInt(generatedPath$amount"), save);
+        assertTrue(save.contains("setBoolean(generatedPath$enabled"), save);
+        assertFalse(load.contains("\"nested.amount\""), load);
+        assertFalse(save.contains("\"nested.amount\""), save);
+    }
+
+    @Test
+    public void testManualConfigHasNoPathConstants() {
+        final JavaClassSource clazz = transform(MANUAL_CONFIG);
+        assertNull(clazz.getField("generatedPath$amount"));
+        assertFalse(clazz.hasImport(ConfigPath.class));
+    }
+
+    @Test
+    public void testGeneratedConfigReadsAndWritesPaths(@TempDir final Path directory) throws Exception {
+        final Class<?> type = compile(directory, transform(AUTOMATIC_CONFIG));
+        assertEquals(ConfigPath.of("nested", "amount"), path(type, "amount"));
+        assertEquals(ConfigPath.of("name"), path(type, "name"));
+        assertEquals(ConfigPath.of("nested", "deeper", "enabled"), path(type, "enabled"));
+
+        final IConfig config = (IConfig) type.getConstructor().newInstance();
+        final Configuration defaults = new Configuration();
+        config.onPropergate(SysOutSimpleLogger.INSTANCE, defaults);
+        assertEquals(3, defaults.getInt("nested.amount"));
+        assertEquals("default", defaults.get("name", String.class));
+        assertTrue(defaults.getBoolean("nested.deeper.enabled"));
+        assertEquals(List.of("a"), defaults.getList("tags", String.class));
+
+        final Configuration loaded = new Configuration();
+        loaded.setInt("nested.amount", 7);
+        loaded.set("name", "changed");
+        loaded.setBoolean("nested.deeper.enabled", false);
+        loaded.set("tags", List.of("b", "c"));
+        config.onLoad(SysOutSimpleLogger.INSTANCE, loaded);
+        assertFalse(config.isModified());
+
+        final Configuration saved = new Configuration();
+        config.onSave(SysOutSimpleLogger.INSTANCE, saved);
+        assertEquals(7, saved.getInt("nested.amount"));
+        assertEquals("changed", saved.get("name", String.class));
+        assertFalse(saved.getBoolean("nested.deeper.enabled"));
+        assertEquals(List.of("b", "c"), saved.getList("tags", String.class));
+
+        // Missing values fall back to the defaults
+        final IConfig other = (IConfig) type.getConstructor().newInstance();
+        other.onLoad(SysOutSimpleLogger.INSTANCE, new Configuration());
+        final Configuration fallback = new Configuration();
+        other.onSave(SysOutSimpleLogger.INSTANCE, fallback);
+        assertEquals(3, fallback.getInt("nested.amount"));
+        assertEquals("default", fallback.get("name", String.class));
+        assertTrue(fallback.getBoolean("nested.deeper.enabled"));
+    }
+
+}
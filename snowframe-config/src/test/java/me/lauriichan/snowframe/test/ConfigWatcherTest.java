@@ -0,0 +1,75 @@
+package me.lauriichan.snowframe.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import me.lauriichan.snowframe.ConfigModule;
+import me.lauriichan.snowframe.SnowFrame;
+import me.lauriichan.snowframe.config.ConfigWrapper;
+import me.lauriichan.snowframe.config.MultiConfigWrapper;
+import me.lauriichan.snowframe.test.WatchedConfigExtension.WatchedConfig;
+
+public class ConfigWatcherTest {
+
+    private static void await(final BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition wasn't met in time");
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testEvictedConfigIsNotReloaded(@TempDir final Path directory) throws Exception {
+        WatchedConfigExtension.directory = directory;
+        final SnowFrame<TestApp> snowFrame = TestApp.start();
+        final ConfigModule module = TestApp.configModule(snowFrame);
+        final MultiConfigWrapper<?, String, WatchedConfig, WatchedConfigExtension> multi = module.manager()
+            .multiWrapper(WatchedConfigExtension.class);
+        final ConfigWrapper<WatchedConfig> evicted = multi.wrapperOrCreate("config");
+        module.enableWatcher(10, TimeUnit.MILLISECONDS);
+        try {
+            multi.evictAfterIdle(1, TimeUnit.MILLISECONDS);
+            Thread.sleep(10);
+            assertEquals(1, multi.evict());
+            multi.evictAfterIdle(0, TimeUnit.MILLISECONDS);
+
+            final ConfigWrapper<WatchedConfig> current = multi.wrapperOrCreate("config");
+            assertNotSame(evicted, current);
+            final int loads = evicted.config().loads();
+            Files.writeString(directory.resolve("config.json"), "{\"value\": \"changed\"}");
+            await(() -> "changed".equals(current.config().value()));
+            assertEquals(loads, evicted.config().loads());
+            assertEquals("default", evicted.config().value());
+        } finally {
+            module.disableWatcher();
+        }
+    }
+
+    @Test
+    public void testConfigCreatedAfterStartIsReloaded(@TempDir final Path directory) throws Exception {
+        WatchedConfigExtension.directory = directory;
+        final SnowFrame<TestApp> snowFrame = TestApp.start();
+        final ConfigModule module = TestApp.configModule(snowFrame);
+        final MultiConfigWrapper<?, String, WatchedConfig, WatchedConfigExtension> multi = module.manager()
+            .multiWrapper(WatchedConfigExtension.class);
+        multi.wrapperOrCreate("first");
+        module.enableWatcher(10, TimeUnit.MILLISECONDS);
+        try {
+            // The directory is already watched, so no refresh is required
+            final WatchedConfig config = multi.configOrCreate("second");
+            Files.writeString(directory.resolve("second.json"), "{\"value\": \"changed\"}");
+            await(() -> "changed".equals(config.value()));
+        } finally {
+            module.disableWatcher();
+        }
+    }
+
+}
@@ -0,0 +1,165 @@
+package me.lauriichan.snowframe.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import me.lauriichan.laylib.logger.ISimpleLogger;
+import me.lauriichan.snowframe.SnowFrame;
+import me.lauriichan.snowframe.config.ConfigWrapper;
+import me.lauriichan.snowframe.config.Configuration;
+import me.lauriichan.snowframe.config.IConfig;
+import me.lauriichan.snowframe.config.IConfigHandler;
+import me.lauriichan.snowframe.config.handler.JsonConfigHandler;
+import me.lauriichan.snowframe.resource.source.ContentHash;
+import me.lauriichan.snowframe.resource.source.MemoryDataSource;
+
+public class ContentHashWriteTest {
+
+    private static final class TestConfig implements IConfig {
+
+        private String value = "aaaa";
+        private boolean modified = false;
+
+        private void value(final String value) {
+            this.value = value;
+            this.modified = true;
+        }
+
+        @Override
+        public IConfigHandler handler() {
+            return JsonConfigHandler.JSON;
+        }
+
+        @Override
+        public boolean isModified() {
+            return modified;
+        }
+
+        @Override
+        public void onLoad(final ISimpleLogger logger, final Configuration configuration) throws Exception {
+            value = configuration.get("value", String.class, value);
+        }
+
+        @Override
+        public void onSave(final ISimpleLogger logger, final Configuration configuration) throws Exception {
+            configuration.set("value", value);
+            modified = false;
+        }
+
+    }
+
+    private static SnowFrame<TestApp> snowFrame;
+
+    @BeforeAll
+    public static void start() {
+        snowFrame = TestApp.start();
+    }
+
+    private static byte[] bytes(final String content) {
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static FileTime age(final Path file) throws Exception {
+        // Moves the modification time back so that a rewrite is always visible
+        final FileTime old = FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() - 60_000L);
+        Files.setLastModifiedTime(file, old);
+        return old;
+    }
+
+    @Test
+    public void testHashIncludesLength() {
+        assertEquals(ContentHash.NONE, ContentHash.of(null));
+        assertEquals(ContentHash.of(bytes("abc")), ContentHash.of(bytes("abc")));
+        assertNotEquals(ContentHash.of(bytes("abc")), ContentHash.of(bytes("abd")));
+        assertEquals(3L, ContentHash.of(bytes("abc")) >>> 32);
+        assertEquals(0L, ContentHash.of(new byte[0]) >>> 32);
+    }
+
+    @Test
+    public void testUnchangedContentIsNotWritten() throws Exception {
+        final MemoryDataSource source = new MemoryDataSource("test.json");
+        final long hash = ContentHash.write(source, bytes("first"), ContentHash.NONE);
+        assertEquals(ContentHash.of(bytes("first")), hash);
+        assertArrayEquals(bytes("first"), source.content());
+
+        final byte[] written = source.content();
+        assertEquals(ContentHash.NONE, ContentHash.write(source, bytes("first"), hash));
+        assertSame(written, source.content());
+    }
+
+    @Test
+    public void testChangedOrUnknownContentIsWritten() throws Exception {
+        final MemoryDataSource source = new MemoryDataSource("test.json", bytes("first"));
+        final long hash = ContentHash.of(bytes("first"));
+
+        // Without a known hash the content is always written
+        final byte[] before = source.content();
+        assertEquals(hash, ContentHash.write(source, bytes("first"), ContentHash.NONE));
+        assertNotSame(before, source.content());
+
+        assertEquals(ContentHash.of(bytes("second")), ContentHash.write(source, bytes("second"), hash));
+        assertArrayEquals(bytes("second"), source.content());
+
+        // A deleted source is written again even if the hash matches
+        source.delete();
+        assertEquals(hash, ContentHash.write(source, bytes("first"), hash));
+        assertArrayEquals(bytes("first"), source.content());
+    }
+
+    @Test
+    public void testWrapperSkipsUnchangedSave(@TempDir final Path directory) throws Exception {
+        final Path file = directory.resolve("config.json");
+        final TestConfig config = new TestConfig();
+        final ConfigWrapper<TestConfig> wrapper = new ConfigWrapper<>(snowFrame, config, "fs://" + file.toAbsolutePath());
+        assertEquals(ConfigWrapper.SUCCESS, wrapper.reloadSingle(false, false));
+        assertTrue(Files.isRegularFile(file));
+        final String content = Files.readString(file);
+        final FileTime old = age(file);
+        // The wrapper only knows the hash of content written at the current modification time
+        assertEquals(ConfigWrapper.SUCCESS, wrapper.reloadSingle(true, false));
+        assertEquals(old, Files.getLastModifiedTime(file));
+
+        // Modified but serialized to the same content, the file isn't touched
+        config.value("aaaa");
+        assertEquals(ConfigWrapper.SKIPPED, wrapper.saveSingle(false));
+        assertEquals(old, Files.getLastModifiedTime(file));
+        assertEquals(content, Files.readString(file));
+
+        config.value("bbbb");
+        assertEquals(ConfigWrapper.SUCCESS, wrapper.saveSingle(false));
+        assertNotEquals(old, Files.getLastModifiedTime(file));
+        assertTrue(Files.readString(file).contains("bbbb"));
+    }
+
+    @Test
+    public void testWrapperRewritesForcedOrExternallyChangedSource(@TempDir final Path directory) throws Exception {
+        final Path file = directory.resolve("config.json");
+        final TestConfig config = new TestConfig();
+        final ConfigWrapper<TestConfig> wrapper = new ConfigWrapper<>(snowFrame, config, "fs://" + file.toAbsolutePath());
+        assertEquals(ConfigWrapper.SUCCESS, wrapper.reloadSingle(false, false));
+        final String content = Files.readString(file);
+
+        // A forced save ignores the known hash
+        FileTime old = age(file);
+        wrapper.reloadSingle(true, false);
+        assertEquals(ConfigWrapper.SUCCESS, wrapper.saveSingle(true));
+        assertNotEquals(old, Files.getLastModifiedTime(file));
+
+        // Someone else wrote the file, the known hash doesn't describe it anymore
+        Files.writeString(file, content.replace("aaaa", "cccc"));
+        old = age(file);
+        config.value("aaaa");
+        assertEquals(ConfigWrapper.SUCCESS, wrapper.saveSingle(false));
+        assertNotEquals(old, Files.getLastModifiedTime(file));
+        assertEquals(content, Files.readString(file));
+    }
+
+}
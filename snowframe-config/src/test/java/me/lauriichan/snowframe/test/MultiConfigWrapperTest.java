@@ -0,0 +1,181 @@
+package me.lauriichan.snowframe.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import me.lauriichan.laylib.logger.ISimpleLogger;
+import me.lauriichan.snowframe.SnowFrame;
+import me.lauriichan.snowframe.config.ConfigWrapper;
+import me.lauriichan.snowframe.config.Configuration;
+import me.lauriichan.snowframe.config.IConfig;
+import me.lauriichan.snowframe.config.IConfigHandler;
+import me.lauriichan.snowframe.config.IMultiConfigExtension;
+import me.lauriichan.snowframe.config.MultiConfigWrapper;
+import me.lauriichan.snowframe.config.handler.JsonConfigHandler;
+
+public class MultiConfigWrapperTest {
+
+    private static final class TestConfig implements IConfig {
+
+        private volatile String value;
+        private volatile boolean modified = false;
+
+        private volatile CountDownLatch saving;
+        private volatile CountDownLatch release;
+
+        private void value(final String value) {
+            this.value = value;
+            this.modified = true;
+        }
+
+        @Override
+        public IConfigHandler handler() {
+            return JsonConfigHandler.JSON;
+        }
+
+        @Override
+        public boolean isModified() {
+            return modified;
+        }
+
+        @Override
+        public void onLoad(final ISimpleLogger logger, final Configuration configuration) throws Exception {
+            value = configuration.get("value", String.class);
+        }
+
+        @Override
+        public void onSave(final ISimpleLogger logger, final Configuration configuration) throws Exception {
+            configuration.set("value", value);
+            modified = false;
+            if (saving != null) {
+                saving.countDown();
+                assertTrue(release.await(10, TimeUnit.SECONDS));
+            }
+        }
+
+    }
+
+    private static final class TestExtension implements IMultiConfigExtension<String, String, TestConfig> {
+
+        private final Path directory;
+
+        private TestExtension(final Path directory) {
+            this.directory = directory;
+        }
+
+        @Override
+        public Class<TestConfig> type() {
+            return TestConfig.class;
+        }
+
+        @Override
+        public String getConfigKey(final String element) {
+            return element;
+        }
+
+        @Override
+        public String path(final String element) {
+            return "fs://" + directory.resolve(element + ".json").toAbsolutePath();
+        }
+
+        @Override
+        public TestConfig create() {
+            return new TestConfig();
+        }
+
+    }
+
+    private static SnowFrame<TestApp> snowFrame;
+
+    @BeforeAll
+    public static void start() {
+        snowFrame = TestApp.start();
+    }
+
+    private static MultiConfigWrapper<String, String, TestConfig, TestExtension> wrapper(final Path directory) {
+        return new MultiConfigWrapper<>(snowFrame, new TestExtension(directory));
+    }
+
+    @Test
+    public void testMaxSizeEvictsLeastRecentlyUsed(@TempDir final Path directory) throws Exception {
+        final MultiConfigWrapper<String, String, TestConfig, TestExtension> multi = wrapper(directory);
+        multi.maxSize(10);
+        final TestConfig first = multi.configOrCreate("0");
+        first.value("kept");
+        for (int i = 1; i < 10; i++) {
+            multi.configOrCreate(Integer.toString(i));
+        }
+        // Accessing the first config makes the second one the least recently used
+        Thread.sleep(1);
+        assertSame(first, multi.config("0"));
+        assertEquals(10, multi.size());
+
+        multi.configOrCreate("10");
+        // A little more than needed is evicted so that not every new config causes a sweep
+        assertEquals(9, multi.size());
+        assertNull(multi.wrapper("1"));
+        assertNull(multi.wrapper("2"));
+        assertSame(first, multi.config("0"));
+        assertNotNull(multi.wrapper("10"));
+
+        multi.maxSize(1);
+        assertEquals(8, multi.evict());
+        assertEquals(1, multi.size());
+        assertNull(multi.wrapper("0"));
+        // Evicted configs are saved and loaded again once they are requested
+        final TestConfig loaded = multi.configOrCreate("0");
+        assertNotSame(first, loaded);
+        assertEquals("kept", loaded.value);
+    }
+
+    @Test
+    public void testIdleConfigsAreEvicted(@TempDir final Path directory) throws Exception {
+        final MultiConfigWrapper<String, String, TestConfig, TestExtension> multi = wrapper(directory);
+        multi.evictAfterIdle(50, TimeUnit.MILLISECONDS);
+        multi.configOrCreate("idle");
+        final ConfigWrapper<TestConfig> used = multi.wrapperOrCreate("used");
+        Thread.sleep(100);
+        assertSame(used, multi.wrapper("used"));
+
+        assertEquals(1, multi.evict());
+        assertNull(multi.wrapper("idle"));
+        assertSame(used, multi.wrapper("used"));
+    }
+
+    @Test
+    public void testRequestDuringEvictionRevivesConfig(@TempDir final Path directory) throws Exception {
+        final MultiConfigWrapper<String, String, TestConfig, TestExtension> multi = wrapper(directory);
+        multi.evictAfterIdle(10, TimeUnit.MILLISECONDS);
+        final ConfigWrapper<TestConfig> wrapper = multi.wrapperOrCreate("key");
+        final TestConfig config = wrapper.config();
+        config.value("before");
+        config.saving = new CountDownLatch(1);
+        config.release = new CountDownLatch(1);
+        Thread.sleep(50);
+
+        final AtomicInteger evicted = new AtomicInteger(-1);
+        final Thread evictor = Thread.ofPlatform().daemon().start(() -> evicted.set(multi.evict()));
+        assertTrue(config.saving.await(10, TimeUnit.SECONDS));
+        // The config is being saved, requesting it has to return the same instance
+        assertSame(wrapper, multi.wrapperOrCreate("key"));
+        config.value("after");
+        config.release.countDown();
+        evictor.join(TimeUnit.SECONDS.toMillis(10));
+        assertFalse(evictor.isAlive());
+
+        assertEquals(0, evicted.get());
+        assertEquals(1, multi.size());
+        assertSame(wrapper, multi.wrapper("key"));
+        assertTrue(config.isModified());
+        assertEquals("after", config.value);
+    }
+
+}
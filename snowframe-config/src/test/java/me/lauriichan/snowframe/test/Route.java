@@ -0,0 +1,13 @@
+package me.lauriichan.snowframe.test;
+
+import java.util.List;
+
+/**
+ * A serializable test value whose json form contains empty, nested and listed
+ * objects
+ */
+public record Route(String name, List<Stop> stops, int depth) {
+
+    public static record Stop(int x, String label) {}
+
+}
@@ -0,0 +1,57 @@
+package me.lauriichan.snowframe.test;
+
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import me.lauriichan.laylib.json.IJson;
+import me.lauriichan.laylib.json.JsonArray;
+import me.lauriichan.laylib.json.JsonObject;
+import me.lauriichan.snowframe.extension.Extension;
+import me.lauriichan.snowframe.io.serialization.json.JsonSerializationHandler;
+import me.lauriichan.snowframe.test.Route.Stop;
+
+@Extension
+public final class RouteSerializer extends JsonSerializationHandler<JsonObject, Route> {
+
+    public RouteSerializer() {
+        super(OBJECT, Route.class);
+    }
+
+    @Override
+    public JsonObject toJson(final Route value) {
+        final JsonObject object = new JsonObject();
+        object.put("name", IJson.of(value.name()));
+        final JsonArray stops = new JsonArray();
+        for (final Stop stop : value.stops()) {
+            final JsonObject stopObject = new JsonObject();
+            stopObject.put("x", IJson.of(stop.x()));
+            final JsonObject meta = new JsonObject();
+            if (stop.label() != null) {
+                meta.put("label", IJson.of(stop.label()));
+            }
+            stopObject.put("meta", meta);
+            stopObject.put("tags", new JsonArray());
+            stops.add(stopObject);
+        }
+        object.put("stops", stops);
+        object.put("empty", new JsonObject());
+        object.put("none", new JsonArray());
+        final JsonObject inner = new JsonObject();
+        inner.put("depth", IJson.of(value.depth()));
+        inner.put("list", new JsonArray());
+        final JsonObject nested = new JsonObject();
+        nested.put("inner", inner);
+        object.put("nested", nested);
+        return object;
+    }
+
+    @Override
+    public Route fromJson(final JsonObject json) {
+        final ObjectArrayList<Stop> stops = new ObjectArrayList<>();
+        for (final IJson<?> element : json.get("stops").asJsonArray()) {
+            final JsonObject stop = element.asJsonObject();
+            stops.add(new Stop(stop.getAsInt("x", -1), stop.get("meta").asJsonObject().getAsString("label")));
+        }
+        final JsonObject inner = json.get("nested").asJsonObject().get("inner").asJsonObject();
+        return new Route(json.getAsString("name"), stops, inner.getAsInt("depth", -1));
+    }
+
+}
@@ -0,0 +1,103 @@
+package me.lauriichan.snowframe.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import me.lauriichan.snowframe.config.Configuration;
+import me.lauriichan.snowframe.config.handler.JsonConfigHandler;
+import me.lauriichan.snowframe.config.handler.StreamingJsonConfigHandler;
+import me.lauriichan.snowframe.io.IOManager;
+import me.lauriichan.snowframe.resource.source.MemoryDataSource;
+import me.lauriichan.snowframe.test.Route.Stop;
+
+public class StreamingJsonConfigHandlerTest {
+
+    private static IOManager ioManager;
+
+    @BeforeAll
+    public static void start() {
+        ioManager = TestApp.ioManager(TestApp.start());
+    }
+
+    private static Route route(final String name) {
+        // The unlabeled stop is written with an empty meta object inside of the stop list
+        return new Route(name, List.of(new Stop(1, "start"), new Stop(2, null)), 3);
+    }
+
+    private static Configuration configuration() {
+        final Configuration configuration = new Configuration();
+        configuration.set("name", "test");
+        configuration.set("amount", 12);
+        configuration.set("tags", List.of("a", "b"));
+        configuration.set("grid", List.of(List.of("x"), List.of()));
+        configuration.set("nested.inner.value", true);
+        configuration.getConfiguration("nested.empty", true);
+        configuration.set("route", route("top"));
+        configuration.set("nested.route", route("nested"));
+        return configuration;
+    }
+
+    private static void assertLoaded(final Configuration configuration) {
+        assertEquals("test", configuration.get("name", String.class));
+        assertEquals(12, configuration.getInt("amount"));
+        assertEquals(List.of("a", "b"), configuration.getList("tags", String.class));
+        assertEquals(List.of(List.of("x"), List.of()), configuration.get("grid"));
+        assertTrue(configuration.getBoolean("nested.inner.value"));
+        assertTrue(configuration.isConfiguration("nested.empty"));
+        assertTrue(configuration.getConfiguration("nested.empty").isEmpty());
+        assertEquals(route("top"), configuration.get("route", Route.class));
+        assertEquals(route("nested"), configuration.get("nested.route", Route.class));
+    }
+
+    private static MemoryDataSource save(final Configuration configuration, final boolean streaming) throws Exception {
+        final MemoryDataSource source = new MemoryDataSource("config.json");
+        if (streaming) {
+            StreamingJsonConfigHandler.JSON.save(ioManager, configuration, source);
+        } else {
+            JsonConfigHandler.JSON.save(ioManager, configuration, source);
+        }
+        return source;
+    }
+
+    private static Configuration load(final MemoryDataSource source, final boolean streaming, final boolean onlyRaw)
+        throws Exception {
+        final Configuration configuration = new Configuration();
+        if (streaming) {
+            StreamingJsonConfigHandler.JSON.load(ioManager, configuration, source, onlyRaw);
+        } else {
+            JsonConfigHandler.JSON.load(ioManager, configuration, source, onlyRaw);
+        }
+        return configuration;
+    }
+
+    @Test
+    public void testReadsTypeLastObjects() throws Exception {
+        // The tree based handler writes the type after the data of an object
+        assertLoaded(load(save(configuration(), false), true, false));
+    }
+
+    @Test
+    public void testReadsTypeFirstObjects() throws Exception {
+        assertLoaded(load(save(configuration(), true), true, false));
+    }
+
+    @Test
+    public void testWrittenSourceIsCompatible() throws Exception {
+        assertLoaded(load(save(configuration(), true), false, false));
+    }
+
+    @Test
+    public void testRawLoadKeepsTypedObjects() throws Exception {
+        final Configuration configuration = load(save(configuration(), false), true, true);
+        assertTrue(configuration.isConfiguration("route"));
+        assertEquals(Route.class.getName(), configuration.get("route.type", String.class));
+        assertEquals(3, configuration.getInt("route.nested.inner.depth"));
+        assertTrue(configuration.getConfiguration("route.empty").isEmpty());
+        assertEquals("nested", configuration.get("nested.route.name", String.class));
+    }
+
+}
@@ -0,0 +1,46 @@
+package me.lauriichan.snowframe.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import me.lauriichan.snowframe.ConfigModule;
+import me.lauriichan.snowframe.IOModule;
+import me.lauriichan.snowframe.ISnowFrameApp;
+import me.lauriichan.snowframe.SnowFrame;
+import me.lauriichan.snowframe.io.IOManager;
+import me.lauriichan.snowframe.lifecycle.Lifecycle;
+
+/**
+ * A minimal app whose extensions are the ones compiled into the test classes,
+ * the io and config modules are registered through the test resources
+ */
+public final class TestApp implements ISnowFrameApp<TestApp> {
+
+    public static SnowFrame<TestApp> start() {
+        final SnowFrame<TestApp> snowFrame = new TestApp().snowFrame();
+        assertTrue(snowFrame.lifecycle().execute(SnowFrame.LIFECYCLE_CHAIN_STARTUP));
+        return snowFrame;
+    }
+
+    public static IOManager ioManager(final SnowFrame<?> snowFrame) {
+        return snowFrame.module(IOModule.class).manager();
+    }
+
+    public static ConfigModule configModule(final SnowFrame<?> snowFrame) {
+        return snowFrame.module(ConfigModule.class);
+    }
+
+    private final SnowFrame<TestApp> snowFrame;
+
+    private TestApp() {
+        this.snowFrame = SnowFrame.builder(this).build();
+    }
+
+    @Override
+    public SnowFrame<TestApp> snowFrame() {
+        return snowFrame;
+    }
+
+    @Override
+    public void registerLifecycle(final Lifecycle<TestApp> lifecycle) {}
+
+}
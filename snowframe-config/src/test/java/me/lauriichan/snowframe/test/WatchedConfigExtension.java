@@ -0,0 +1,74 @@
+package me.lauriichan.snowframe.test;
+
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import me.lauriichan.laylib.logger.ISimpleLogger;
+import me.lauriichan.snowframe.config.Configuration;
+import me.lauriichan.snowframe.config.IConfig;
+import me.lauriichan.snowframe.config.IConfigHandler;
+import me.lauriichan.snowframe.config.IMultiConfigExtension;
+import me.lauriichan.snowframe.config.handler.JsonConfigHandler;
+import me.lauriichan.snowframe.extension.Extension;
+
+/**
+ * A multi config that is known to the config manager, its files are stored in
+ * the directory set by the running test
+ */
+@Extension
+public final class WatchedConfigExtension implements IMultiConfigExtension<String, String, WatchedConfigExtension.WatchedConfig> {
+
+    public static final class WatchedConfig implements IConfig {
+
+        private final AtomicInteger loads = new AtomicInteger();
+        private volatile String value;
+
+        public int loads() {
+            return loads.get();
+        }
+
+        public String value() {
+            return value;
+        }
+
+        @Override
+        public IConfigHandler handler() {
+            return JsonConfigHandler.JSON;
+        }
+
+        @Override
+        public void onLoad(final ISimpleLogger logger, final Configuration configuration) throws Exception {
+            value = configuration.get("value", String.class);
+            loads.incrementAndGet();
+        }
+
+        @Override
+        public void onSave(final ISimpleLogger logger, final Configuration configuration) throws Exception {
+            configuration.set("value", value == null ? "default" : value);
+        }
+
+    }
+
+    public static volatile Path directory;
+
+    @Override
+    public Class<WatchedConfig> type() {
+        return WatchedConfig.class;
+    }
+
+    @Override
+    public String getConfigKey(final String element) {
+        return element;
+    }
+
+    @Override
+    public String path(final String element) {
+        return "fs://" + directory.resolve(element + ".json").toAbsolutePath();
+    }
+
+    @Override
+    public WatchedConfig create() {
+        return new WatchedConfig();
+    }
+
+}
@@ -0,0 +1,79 @@
+package me.lauriichan.snowframe.resource.source;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.CRC32C;
+
+/**
+ * Cheap content hashes used to detect if serialized data actually changed
+ * before it is written to a data source.
+ */
+public final class ContentHash {
+
+    /**
+     * Hash value used when no content is known
+     */
+    public static final long NONE = -1L;
+
+    private ContentHash() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Creates a hash of the content, the length is part of the hash to further
+     * reduce collisions
+     *
+     * @param  content the content to hash
+     *
+     * @return         the hash or {@link #NONE} if there is no content
+     */
+    public static long of(final byte[] content) {
+        if (content == null) {
+            return NONE;
+        }
+        final CRC32C crc = new CRC32C();
+        crc.update(content, 0, content.length);
+        return ((content.length & 0x7FFFFFFFL) << 32) | crc.getValue();
+    }
+
+    /**
+     * Reads the whole content of a source
+     *
+     * @param  source      the source to read
+     *
+     * @return             the content
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public static byte[] read(final IDataSource source) throws IOException {
+        try (InputStream stream = source.openReadableStream()) {
+            return stream.readAllBytes();
+        }
+    }
+
+    /**
+     * Writes the content to the source if it differs from the previous content
+     *
+     * @param  source       the source to write to
+     * @param  content      the content to write
+     * @param  previousHash the hash of the content that the source is known to
+     *                          contain or {@link #NONE}
+     *
+     * @return              the hash of the content or {@link #NONE} if nothing
+     *                          was written as the content didn't change
+     *
+     * @throws IOException  if an I/O error occurs
+     */
+    public static long write(final IDataSource source, final byte[] content, final long previousHash) throws IOException {
+        final long hash = of(content);
+        if (previousHash != NONE && hash == previousHash && source.exists()) {
+            return NONE;
+        }
+        try (OutputStream stream = source.openWritableStream()) {
+            stream.write(content);
+        }
+        return hash;
+    }
+
+}
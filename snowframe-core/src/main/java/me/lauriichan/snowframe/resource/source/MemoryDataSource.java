@@ -0,0 +1,113 @@
+package me.lauriichan.snowframe.resource.source;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import it.unimi.dsi.fastutil.io.FastByteArrayInputStream;
+
+/**
+ * A data source that is backed by a byte array, used to parse or serialize
+ * data in memory before it is actually read from or written to another source.
+ */
+public final class MemoryDataSource implements IDataSource {
+
+    private static final byte[] EMPTY_CONTENT = new byte[0];
+
+    private final String path;
+
+    private volatile byte[] content;
+    private volatile long lastModified;
+
+    public MemoryDataSource(final String path) {
+        this(path, null);
+    }
+
+    public MemoryDataSource(final String path, final byte[] content) {
+        this.path = path;
+        this.content = content;
+        this.lastModified = content == null ? -1L : System.currentTimeMillis();
+    }
+
+    /**
+     * Gets the current content of the source, the returned array is not copied
+     * and must not be modified
+     *
+     * @return the content or {@code null} if nothing was written yet
+     */
+    public byte[] content() {
+        return content;
+    }
+
+    @Override
+    public boolean exists() {
+        return content != null;
+    }
+
+    @Override
+    public Object getSource() {
+        return content;
+    }
+
+    @Override
+    public String getPath() {
+        return path;
+    }
+
+    @Override
+    public String name() {
+        int index = path.lastIndexOf('/');
+        return index == -1 ? path : path.substring(index + 1);
+    }
+
+    @Override
+    public long lastModified() {
+        return lastModified;
+    }
+
+    @Override
+    public void delete() throws IOException {
+        content = null;
+        lastModified = -1L;
+    }
+
+    @Override
+    public boolean isWritable() {
+        return true;
+    }
+
+    @Override
+    public OutputStream openWritableStream() throws IOException {
+        return new ByteArrayOutputStream() {
+            private boolean closed = false;
+
+            @Override
+            public void close() throws IOException {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                content = toByteArray();
+                lastModified = System.currentTimeMillis();
+            }
+        };
+    }
+
+    @Override
+    public boolean isReadable() {
+        return true;
+    }
+
+    @Override
+    public InputStream openReadableStream() throws IOException {
+        byte[] current = content;
+        return new FastByteArrayInputStream(current == null ? EMPTY_CONTENT : current);
+    }
+
+    @Override
+    public String toString() {
+        return new StringBuilder("MemorySource[path=").append(path).append("]").toString();
+    }
+
+}
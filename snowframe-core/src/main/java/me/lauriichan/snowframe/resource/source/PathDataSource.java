@@ -117,7 +117,8 @@ public final class PathDataSource implements IDataSource {
             throw new UnsupportedOperationException("Path can not be written to");
         }
         ensureCreated();
-        return path.getFileSystem().provider().newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        return path.getFileSystem().provider().newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
     }
 
     @Override
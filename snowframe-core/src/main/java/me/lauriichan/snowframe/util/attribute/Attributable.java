@@ -1,15 +1,20 @@
 package me.lauriichan.snowframe.util.attribute;
 
+import java.util.Collections;
 import java.util.Set;
 
 import it.unimi.dsi.fastutil.objects.Object2ObjectArrayMap;
 
 public abstract class Attributable implements IAttributable {
 
-    private final Object2ObjectArrayMap<String, Object> attributes = new Object2ObjectArrayMap<>();
+    // Allocated on first write as most attributables never store anything
+    private Object2ObjectArrayMap<String, Object> attributes;
 
     @Override
     public final Object attr(final String key) {
+        if (attributes == null) {
+            return null;
+        }
         return attributes.get(key);
     }
 
@@ -20,7 +25,7 @@ public abstract class Attributable implements IAttributable {
 
     @Override
     public final <T> T attrOrDefault(final String key, final Class<T> type, final T fallback) {
-        final Object obj = attributes.get(key);
+        final Object obj = attr(key);
         if (obj == null || !type.isAssignableFrom(obj.getClass())) {
             return fallback;
         }
@@ -29,7 +34,7 @@ public abstract class Attributable implements IAttributable {
 
     @Override
     public Class<?> attrClass(final String key) {
-        if (attributes.get(key) instanceof final Class<?> clazz) {
+        if (attr(key) instanceof final Class<?> clazz) {
             return clazz;
         }
         return null;
@@ -42,7 +47,7 @@ public abstract class Attributable implements IAttributable {
 
     @Override
     public <T> Class<? extends T> attrClassOrDefault(final String key, final Class<T> type, final Class<? extends T> fallback) {
-        if (attributes.get(key) instanceof final Class<?> clazz && type.isAssignableFrom(clazz)) {
+        if (attr(key) instanceof final Class<?> clazz && type.isAssignableFrom(clazz)) {
             return clazz.asSubclass(type);
         }
         return fallback;
@@ -50,26 +55,32 @@ public abstract class Attributable implements IAttributable {
 
     @Override
     public final boolean attrHas(final String key) {
-        return attributes.containsKey(key);
+        return attributes != null && attributes.containsKey(key);
     }
 
     @Override
     public final boolean attrHas(final String key, final Class<?> type) {
-        final Object obj = attributes.get(key);
+        final Object obj = attr(key);
         return obj != null && type.isAssignableFrom(obj.getClass());
     }
 
     @Override
     public final void attrSet(final String key, final Object object) {
         if (object == null) {
-            attributes.remove(key);
+            attrUnset(key);
             return;
         }
+        if (attributes == null) {
+            attributes = new Object2ObjectArrayMap<>();
+        }
         attributes.put(key, object);
     }
 
     @Override
     public final Object attrUnset(final String key) {
+        if (attributes == null) {
+            return null;
+        }
         return attributes.remove(key);
     }
 
@@ -80,7 +91,7 @@ public abstract class Attributable implements IAttributable {
 
     @Override
     public <T> T attrUnsetOrDefault(final String key, final Class<T> type, final T fallback) {
-        final Object obj = attributes.remove(key);
+        final Object obj = attrUnset(key);
         if (obj == null || !type.isAssignableFrom(obj.getClass())) {
             return fallback;
         }
@@ -89,16 +100,25 @@ public abstract class Attributable implements IAttributable {
 
     @Override
     public final void attrClear() {
+        if (attributes == null) {
+            return;
+        }
         attributes.clear();
     }
 
     @Override
     public final int attrAmount() {
+        if (attributes == null) {
+            return 0;
+        }
         return attributes.size();
     }
 
     @Override
     public final Set<String> attrKeys() {
+        if (attributes == null) {
+            return Collections.emptySet();
+        }
         return attributes.keySet();
     }
 
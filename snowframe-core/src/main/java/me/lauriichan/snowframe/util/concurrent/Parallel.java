@@ -0,0 +1,116 @@
+package me.lauriichan.snowframe.util.concurrent;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Small helpers to run indexed tasks on an executor and wait for them, task
+ * failures are rethrown as they were thrown by the task.
+ */
+public final class Parallel {
+
+    private Parallel() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Creates an executor that starts a new named virtual thread per task
+     *
+     * @param  name the name of the threads
+     *
+     * @return      the executor
+     */
+    public static Executor virtualExecutor(final String name) {
+        Objects.requireNonNull(name);
+        return task -> Thread.ofVirtual().name(name).start(task);
+    }
+
+    /**
+     * Waits for the future and unwraps the {@link CompletionException} if the
+     * task failed with a {@link RuntimeException} or an {@link Error}
+     *
+     * @param  <V>    the result type
+     * @param  future the future to wait for
+     *
+     * @return        the result of the future
+     */
+    public static <V> V join(final CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (final CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (exception.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw exception;
+        }
+    }
+
+    /**
+     * Runs the task for every index from {@code start} (inclusive) to
+     * {@code end} (exclusive) concurrently and waits until all of them are done
+     *
+     * @param start    the first index
+     * @param end      the index after the last index
+     * @param task     the task to run per index
+     * @param executor the executor to run the tasks on
+     */
+    public static void run(final int start, final int end, final IntConsumer task, final Executor executor) {
+        Objects.requireNonNull(executor);
+        if (start >= end) {
+            return;
+        }
+        final CompletableFuture<?>[] futures = new CompletableFuture<?>[end - start];
+        for (int i = start; i < end; i++) {
+            final int index = i;
+            futures[i - start] = CompletableFuture.runAsync(() -> task.accept(index), executor);
+        }
+        join(CompletableFuture.allOf(futures));
+    }
+
+    /**
+     * Produces the values of all indices concurrently while they are consumed in
+     * index order on the calling thread, at most {@code window} values are
+     * produced ahead of the consumer
+     *
+     * @param <V>      the value type
+     * @param amount   the amount of indices
+     * @param window   the maximum amount of values that are produced ahead
+     * @param producer the producer that is run on the executor
+     * @param consumer the consumer that is run on the calling thread
+     * @param executor the executor to run the producer on
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> void ordered(final int amount, final int window, final IntFunction<V> producer, final ObjIntConsumer<V> consumer,
+        final Executor executor) {
+        Objects.requireNonNull(executor);
+        if (window < 1) {
+            throw new IllegalArgumentException("Window has to be at least 1");
+        }
+        final CompletableFuture<V>[] futures = new CompletableFuture[amount];
+        for (int i = 0; i < amount && i < window; i++) {
+            futures[i] = supply(producer, i, executor);
+        }
+        V value;
+        for (int i = 0; i < amount; i++) {
+            value = join(futures[i]);
+            futures[i] = null;
+            if (i + window < amount) {
+                futures[i + window] = supply(producer, i + window, executor);
+            }
+            consumer.accept(value, i);
+        }
+    }
+
+    private static <V> CompletableFuture<V> supply(final IntFunction<V> producer, final int index, final Executor executor) {
+        return CompletableFuture.supplyAsync(() -> producer.apply(index), executor);
+    }
+
+}
@@ -11,12 +11,46 @@ public abstract class AbstractTickTimer {
     private volatile String name = null;
     private volatile boolean daemon = true;
 
-    private final TimeSync sync = new TimeSync();
+    private final TimeSync sync;
+    private final TickTaskQueue tasks = new TickTaskQueue();
+
+    private final TickScheduler scheduler;
+    private volatile TickScheduler.Handle handle;
+    private volatile TickScheduler.Handle stoppedHandle;
+
+    public AbstractTickTimer() {
+        this(null, ITickClock.SYSTEM);
+    }
+
+    public AbstractTickTimer(final ITickClock clock) {
+        this(null, clock);
+    }
+
+    public AbstractTickTimer(final TickScheduler scheduler) {
+        this(scheduler, scheduler == null ? ITickClock.SYSTEM : scheduler.clock());
+    }
+
+    private AbstractTickTimer(final TickScheduler scheduler, final ITickClock clock) {
+        this.scheduler = scheduler;
+        this.sync = new TimeSync(clock);
+    }
+
+    public final TickScheduler scheduler() {
+        return scheduler;
+    }
+
+    public final boolean isScheduled() {
+        return scheduler != null;
+    }
 
     public final TimeSync sync() {
         return sync;
     }
 
+    public final TickTaskQueue tasks() {
+        return tasks;
+    }
+
     public final void setName(final String name) {
         this.name = name;
         updateName();
@@ -61,7 +95,7 @@ public abstract class AbstractTickTimer {
     }
 
     public final boolean isAlive() {
-        return timerThread != null;
+        return timerThread != null || handle != null;
     }
 
     public final boolean isPaused() {
@@ -69,10 +103,24 @@ public abstract class AbstractTickTimer {
     }
 
     public final void pause() {
-        state.compareAndSet(1, 2);
+        if (state.compareAndSet(1, 2)) {
+            TickScheduler.Handle handle = this.handle;
+            if (handle != null) {
+                handle.pause();
+            }
+        }
     }
 
     public final void start() {
+        if (scheduler != null) {
+            TickScheduler.Handle stopped = stoppedHandle;
+            if (stopped != null) {
+                // A tick of the previous handle might still be running and shares the same sync
+                stopped.cancelAndAwait();
+            }
+            startScheduled();
+            return;
+        }
         if (timerThread != null) {
             state.compareAndSet(2, 1);
             return;
@@ -84,7 +132,26 @@ public abstract class AbstractTickTimer {
         timerThread.start();
     }
 
+    private final synchronized void startScheduled() {
+        if (handle != null) {
+            if (state.compareAndSet(2, 1)) {
+                handle.resume();
+            }
+            return;
+        }
+        state.set(1);
+        handle = scheduler.schedule(this::runTick, sync);
+    }
+
     public final void stop() {
+        if (scheduler != null) {
+            TickScheduler.Handle handle = stopScheduled();
+            if (handle != null) {
+                // Waiting outside of the monitor as the tick itself might start or stop the timer
+                handle.cancelAndAwait();
+            }
+            return;
+        }
         if (timerThread == null) {
             return;
         }
@@ -94,6 +161,18 @@ public abstract class AbstractTickTimer {
         timerThread = null;
     }
 
+    private final synchronized TickScheduler.Handle stopScheduled() {
+        TickScheduler.Handle handle = this.handle;
+        if (handle == null) {
+            return null;
+        }
+        state.set(0);
+        handle.cancel();
+        this.handle = null;
+        this.stoppedHandle = handle;
+        return handle;
+    }
+
     private final void tickThread() {
         int currentState;
         while (true) {
@@ -105,12 +184,17 @@ public abstract class AbstractTickTimer {
                 continue;
             }
             try {
-                tick(sync.newTick());
+                runTick(sync.newTick());
             } finally {
                 sync.endTick();
             }
         }
     }
+
+    private final void runTick(long delta) {
+        tasks.drain(sync.clock());
+        tick(delta);
+    }
     
     protected abstract Thread createThread(Runnable runnable);
 
@@ -13,14 +13,24 @@ public final class BlockingTicker {
 
     private volatile Thread currentThread;
 
-    private final TimeSync sync = new TimeSync();
+    private final TimeSync sync;
+    private final TickTaskQueue tasks = new TickTaskQueue();
 
     public final TimeSync sync() {
         return sync;
     }
 
+    public final TickTaskQueue tasks() {
+        return tasks;
+    }
+
     public BlockingTicker(LongConsumer executable) {
+        this(executable, ITickClock.SYSTEM);
+    }
+
+    public BlockingTicker(LongConsumer executable, ITickClock clock) {
         this.executable = Objects.requireNonNull(executable);
+        this.sync = new TimeSync(clock);
     }
 
     public final Thread currentThread() {
@@ -72,7 +82,9 @@ public final class BlockingTicker {
                     continue;
                 }
                 try {
-                    executable.accept(sync.newTick());
+                    long delta = sync.newTick();
+                    tasks.drain(sync.clock());
+                    executable.accept(delta);
                 } finally {
                     sync.endTick();
                 }
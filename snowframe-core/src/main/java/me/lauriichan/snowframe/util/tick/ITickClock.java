@@ -0,0 +1,37 @@
+package me.lauriichan.snowframe.util.tick;
+
+public interface ITickClock {
+
+    ITickClock SYSTEM = SystemTickClock.INSTANCE;
+
+    long nanoTime();
+
+    void waitUntil(long nanoTime);
+
+    default boolean isRealtime() {
+        return false;
+    }
+
+    /**
+     * If the time of this clock only advances once another thread advances it,
+     * waiting code should then wait for an advance listener instead of blocking
+     * in {@link #waitUntil(long)}
+     * 
+     * @return {@code true} if the clock is advanced externally
+     */
+    default boolean isExternallyAdvanced() {
+        return false;
+    }
+
+    /**
+     * Adds a listener that is called whenever the time of the clock advanced,
+     * clocks that are never {@link #isExternallyAdvanced() advanced externally}
+     * can ignore this
+     * 
+     * @param listener the listener
+     */
+    default void addAdvanceListener(final Runnable listener) {}
+
+    default void removeAdvanceListener(final Runnable listener) {}
+
+}
@@ -0,0 +1,112 @@
+package me.lauriichan.snowframe.util.tick;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+public final class ManualTickClock implements ITickClock {
+
+    private final Object lock = new Object();
+    private final CopyOnWriteArrayList<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    private final boolean autoAdvance;
+
+    private volatile long time;
+
+    public ManualTickClock() {
+        this(0L, false);
+    }
+
+    public ManualTickClock(final boolean autoAdvance) {
+        this(0L, autoAdvance);
+    }
+
+    /**
+     * @param time        the initial time in nanoseconds
+     * @param autoAdvance if {@code true} waiting jumps the clock straight to the
+     *                        requested time, otherwise waiting blocks until the
+     *                        clock is advanced by another thread
+     */
+    public ManualTickClock(final long time, final boolean autoAdvance) {
+        this.time = time;
+        this.autoAdvance = autoAdvance;
+    }
+
+    public boolean isAutoAdvance() {
+        return autoAdvance;
+    }
+
+    public void advance(final long amount, final TimeUnit unit) {
+        advance(unit.toNanos(amount));
+    }
+
+    public void advance(final long nanos) {
+        if (nanos < 0) {
+            throw new IllegalArgumentException("Time can't go backwards");
+        }
+        synchronized (lock) {
+            time += nanos;
+            lock.notifyAll();
+        }
+        notifyListeners();
+    }
+
+    public void set(final long nanoTime) {
+        synchronized (lock) {
+            if (nanoTime < time) {
+                throw new IllegalArgumentException("Time can't go backwards");
+            }
+            time = nanoTime;
+            lock.notifyAll();
+        }
+        notifyListeners();
+    }
+
+    private void notifyListeners() {
+        // Called outside of the lock as listeners usually acquire their own locks
+        for (Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+
+    @Override
+    public boolean isExternallyAdvanced() {
+        return !autoAdvance;
+    }
+
+    @Override
+    public void addAdvanceListener(final Runnable listener) {
+        listeners.addIfAbsent(listener);
+    }
+
+    @Override
+    public void removeAdvanceListener(final Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public long nanoTime() {
+        return time;
+    }
+
+    @Override
+    public void waitUntil(final long nanoTime) {
+        synchronized (lock) {
+            if (autoAdvance) {
+                if (nanoTime > time) {
+                    time = nanoTime;
+                    lock.notifyAll();
+                }
+                return;
+            }
+            while (time < nanoTime) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+}
@@ -22,6 +22,16 @@ public class SimpleTickTimer extends AbstractTickTimer {
     public SimpleTickTimer(final ThreadFactory factory) {
         this.factory = factory;
     }
+
+    public SimpleTickTimer(final ThreadFactory factory, final ITickClock clock) {
+        super(clock);
+        this.factory = factory;
+    }
+
+    public SimpleTickTimer(final TickScheduler scheduler) {
+        super(scheduler);
+        this.factory = null;
+    }
     
     public SimpleTickTimer add(ITickable tickable) {
         if (tickable == null || tickables.contains(tickable)) {
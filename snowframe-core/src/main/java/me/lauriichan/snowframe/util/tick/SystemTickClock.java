@@ -0,0 +1,33 @@
+package me.lauriichan.snowframe.util.tick;
+
+final class SystemTickClock implements ITickClock {
+
+    static final SystemTickClock INSTANCE = new SystemTickClock();
+
+    private SystemTickClock() {}
+
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public void waitUntil(long nanoTime) {
+        int cycles;
+        while (true) {
+            cycles = (int) ((nanoTime - System.nanoTime()) / 1000);
+            if (cycles <= 0) {
+                break;
+            }
+            while (cycles-- > 0) {
+                Thread.yield();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRealtime() {
+        return true;
+    }
+
+}
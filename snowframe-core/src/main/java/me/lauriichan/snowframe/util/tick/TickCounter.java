@@ -1,14 +1,32 @@
 package me.lauriichan.snowframe.util.tick;
 
+import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
 public final class TickCounter {
 
+    private final ITickClock clock;
+
     private final long goal;
     private volatile long count;
 
+    private long lastTime;
+
     public TickCounter(final long amount, final TimeUnit unit) {
+        this(amount, unit, ITickClock.SYSTEM);
+    }
+
+    public TickCounter(final long amount, final TimeUnit unit, final ITickClock clock) {
         this.goal = unit.toNanos(amount);
+        this.clock = Objects.requireNonNull(clock);
+        this.lastTime = clock.nanoTime();
+    }
+
+    public boolean tick() {
+        long time = clock.nanoTime();
+        long delta = time - lastTime;
+        lastTime = time;
+        return tick(delta);
     }
 
     public boolean tick(final long delta) {
@@ -22,6 +40,11 @@ public final class TickCounter {
 
     public void reset() {
         count = 0;
+        lastTime = clock.nanoTime();
+    }
+
+    public ITickClock clock() {
+        return clock;
     }
 
     public long goal() {
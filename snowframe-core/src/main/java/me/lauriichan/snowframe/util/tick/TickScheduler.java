@@ -0,0 +1,310 @@
+package me.lauriichan.snowframe.util.tick;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import it.unimi.dsi.fastutil.longs.LongConsumer;
+import it.unimi.dsi.fastutil.objects.ObjectHeapPriorityQueue;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+
+public final class TickScheduler {
+
+    public final class Handle {
+
+        private final AtomicInteger state = new AtomicInteger(1);
+        private final ReentrantLock tickLock = new ReentrantLock();
+
+        private final LongConsumer executable;
+        private final TimeSync sync;
+
+        private long deadline;
+
+        private Handle(final LongConsumer executable, final TimeSync sync) {
+            this.executable = executable;
+            this.sync = sync;
+        }
+
+        public TimeSync sync() {
+            return sync;
+        }
+
+        public TickScheduler scheduler() {
+            return TickScheduler.this;
+        }
+
+        public boolean isAlive() {
+            return state.get() != 0;
+        }
+
+        public boolean isPaused() {
+            return state.get() == 2;
+        }
+
+        public void pause() {
+            state.compareAndSet(1, 2);
+        }
+
+        public void resume() {
+            state.compareAndSet(2, 1);
+        }
+
+        public void cancel() {
+            // Handle will be dropped the next time it is due
+            state.set(0);
+        }
+
+        /**
+         * Cancels the handle and waits for a tick that is currently running, the
+         * executable is never called again once this returns. If this is called
+         * from inside of the executable it returns right away.
+         */
+        public void cancelAndAwait() {
+            state.set(0);
+            if (tickLock.isHeldByCurrentThread()) {
+                return;
+            }
+            tickLock.lock();
+            tickLock.unlock();
+        }
+
+        private boolean run() {
+            tickLock.lock();
+            try {
+                // The state is checked while holding the lock so that no tick starts after cancelAndAwait
+                int currentState = state.get();
+                if (currentState == 0) {
+                    return false;
+                }
+                if (currentState == 2) {
+                    deadline = clock.nanoTime() + sync.pauseLength();
+                    return true;
+                }
+                try {
+                    executable.accept(sync.newTick());
+                } finally {
+                    sync.finishTick();
+                }
+                deadline = sync.nextTickTime();
+                return true;
+            } finally {
+                tickLock.unlock();
+            }
+        }
+
+    }
+
+    private final ObjectHeapPriorityQueue<Handle> queue = new ObjectHeapPriorityQueue<>((h1, h2) -> Long.compare(h1.deadline, h2.deadline));
+    // All handles that weren't dropped yet, including the ones that are currently ticking and therefore not queued
+    private final ObjectOpenHashSet<Handle> handles = new ObjectOpenHashSet<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+
+    private final Thread[] workers;
+    private final ITickClock clock;
+
+    private final Runnable advanceListener = this::onAdvance;
+
+    private volatile boolean running = true;
+
+    public TickScheduler(final int threads) {
+        this(threads, Thread.ofPlatform().daemon().name("TickScheduler-", 0).factory(), ITickClock.SYSTEM);
+    }
+
+    public TickScheduler(final int threads, final ThreadFactory factory) {
+        this(threads, factory, ITickClock.SYSTEM);
+    }
+
+    public TickScheduler(final int threads, final ThreadFactory factory, final ITickClock clock) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is required");
+        }
+        Objects.requireNonNull(factory);
+        this.clock = Objects.requireNonNull(clock);
+        this.workers = new Thread[threads];
+        clock.addAdvanceListener(advanceListener);
+        for (int i = 0; i < threads; i++) {
+            workers[i] = factory.newThread(this::workerThread);
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+    }
+
+    public Handle schedule(final LongConsumer executable) {
+        return schedule(executable, new TimeSync(clock));
+    }
+
+    public Handle schedule(final LongConsumer executable, final TimeSync sync) {
+        if (!running) {
+            throw new IllegalStateException("TickScheduler is shutdown");
+        }
+        if (sync.clock() != clock) {
+            throw new IllegalArgumentException("TimeSync has to use the same clock as the scheduler");
+        }
+        Handle handle = new Handle(Objects.requireNonNull(executable), sync);
+        handle.deadline = clock.nanoTime();
+        lock.lock();
+        try {
+            // Checked again while holding the lock so that shutdown can't miss a handle that is scheduled concurrently
+            if (!running) {
+                throw new IllegalStateException("TickScheduler is shutdown");
+            }
+            handles.add(handle);
+            queue.enqueue(handle);
+            if (queue.first() == handle) {
+                available.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return handle;
+    }
+
+    public ITickClock clock() {
+        return clock;
+    }
+
+    public int threads() {
+        return workers.length;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops the scheduler, cancels all scheduled handles and waits for ticks that
+     * are currently running just like {@link Handle#cancelAndAwait()}, no
+     * executable is called again once this returns. If this is called from inside
+     * of an executable only the tick of that executable isn't awaited.
+     */
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        clock.removeAdvanceListener(advanceListener);
+        Handle[] scheduled;
+        lock.lock();
+        try {
+            queue.clear();
+            scheduled = handles.toArray(new Handle[handles.size()]);
+            handles.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (Handle handle : scheduled) {
+            handle.cancelAndAwait();
+        }
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+    }
+
+    private void onAdvance() {
+        lock.lock();
+        try {
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void drop(final Handle handle) {
+        lock.lock();
+        try {
+            handles.remove(handle);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void enqueue(final Handle handle) {
+        lock.lock();
+        try {
+            queue.enqueue(handle);
+            // Wake a worker if this handle is due before the previous head
+            if (queue.first() == handle) {
+                available.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Handle take() throws InterruptedException {
+        lock.lock();
+        try {
+            while (running) {
+                if (queue.isEmpty()) {
+                    available.await();
+                    continue;
+                }
+                long deadline = queue.first().deadline;
+                long wait = deadline - clock.nanoTime();
+                if (wait > 0) {
+                    if (clock.isRealtime()) {
+                        available.awaitNanos(wait);
+                        continue;
+                    }
+                    if (clock.isExternallyAdvanced()) {
+                        // Woken up by the clock advancing or by an earlier handle being scheduled
+                        available.await();
+                        continue;
+                    }
+                    // Other simulated clocks can't be awaited on the condition, so wait on the clock itself
+                    lock.unlock();
+                    try {
+                        clock.waitUntil(deadline);
+                    } finally {
+                        lock.lock();
+                    }
+                    continue;
+                }
+                Handle handle = queue.dequeue();
+                if (!queue.isEmpty()) {
+                    // Let another worker pick up the next deadline
+                    available.signal();
+                }
+                return handle;
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void workerThread() {
+        Handle handle;
+        while (running) {
+            try {
+                if ((handle = take()) == null) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                continue;
+            }
+            boolean reschedule;
+            try {
+                reschedule = handle.run();
+            } catch (Throwable exp) {
+                // Report the failure but keep the timer alive, the next tick might succeed
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, exp);
+                reschedule = true;
+                handle.deadline = handle.sync.nextTickTime();
+            }
+            if (!reschedule) {
+                drop(handle);
+            } else if (running) {
+                enqueue(handle);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,136 @@
+package me.lauriichan.snowframe.util.tick;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+public final class TickTaskQueue implements Executor {
+
+    private static final long DEFAULT_BUDGET = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private static final VarHandle TAIL;
+    private static final VarHandle NEXT;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            TAIL = lookup.findVarHandle(TickTaskQueue.class, "tail", Node.class);
+            NEXT = lookup.findVarHandle(Node.class, "next", Node.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static final class Node {
+
+        private volatile Node next;
+        private Runnable task;
+
+        private Node(final Runnable task) {
+            this.task = task;
+        }
+
+    }
+
+    // Producers only ever swap the tail, the consumer exclusively owns the head
+    @SuppressWarnings("unused")
+    private volatile Node tail;
+    private Node head;
+
+    private volatile long budget = DEFAULT_BUDGET;
+    private volatile Consumer<RuntimeException> exceptionHandler;
+
+    public TickTaskQueue() {
+        this.head = this.tail = new Node(null);
+    }
+
+    @Override
+    public void execute(final Runnable task) {
+        Node node = new Node(Objects.requireNonNull(task));
+        Node previous = (Node) TAIL.getAndSet(this, node);
+        NEXT.setRelease(previous, node);
+    }
+
+    public boolean isEmpty() {
+        return head.next == null;
+    }
+
+    /*
+     * Config
+     */
+
+    public void budget(final long budget, final TimeUnit unit) {
+        budget(unit.toNanos(budget));
+    }
+
+    public void budget(final long budgetInNanos) {
+        if (budgetInNanos <= 0) {
+            throw new IllegalArgumentException("Budget has to be positive");
+        }
+        this.budget = budgetInNanos;
+    }
+
+    public long budget() {
+        return budget;
+    }
+
+    public void exceptionHandler(final Consumer<RuntimeException> exceptionHandler) {
+        this.exceptionHandler = exceptionHandler;
+    }
+
+    public Consumer<RuntimeException> exceptionHandler() {
+        return exceptionHandler;
+    }
+
+    /*
+     * Consumer
+     */
+
+    /**
+     * Runs queued tasks until the queue is empty or the configured budget is used
+     * up, remaining tasks stay queued for the next call. Must only be called by the
+     * consuming thread.
+     *
+     * @param  clock the clock used to measure the budget
+     *
+     * @return       the amount of tasks that were executed
+     */
+    public int drain(final ITickClock clock) {
+        Node next = (Node) NEXT.getAcquire(head);
+        if (next == null) {
+            return 0;
+        }
+        long deadline = clock.nanoTime() + budget;
+        int executed = 0;
+        Runnable task;
+        do {
+            head = next;
+            task = next.task;
+            next.task = null;
+            executed++;
+            try {
+                task.run();
+            } catch (RuntimeException exp) {
+                handleException(exp);
+            }
+            if (clock.nanoTime() - deadline >= 0) {
+                break;
+            }
+        } while ((next = (Node) NEXT.getAcquire(head)) != null);
+        return executed;
+    }
+
+    private void handleException(final RuntimeException exp) {
+        Consumer<RuntimeException> handler = exceptionHandler;
+        if (handler != null) {
+            handler.accept(exp);
+            return;
+        }
+        Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, exp);
+    }
+
+}
@@ -1,5 +1,6 @@
 package me.lauriichan.snowframe.util.tick;
 
+import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
 public final class TimeSync {
@@ -14,15 +15,23 @@ public final class TimeSync {
     private volatile int tps = -1, tpm = -1;
     private volatile long lastTickLength = 0;
 
-    private long nextLength;
+    private final ITickClock clock;
+
     private long time, prevTime;
     private long elapsedSecond = 0, elapsedMinute = 0;
     private long delta = 0;
 
-    private int cycles;
-
     public TimeSync() {
-        prevTime = time = System.nanoTime();
+        this(ITickClock.SYSTEM);
+    }
+
+    public TimeSync(final ITickClock clock) {
+        this.clock = Objects.requireNonNull(clock);
+        prevTime = time = clock.nanoTime();
+    }
+
+    public final ITickClock clock() {
+        return clock;
     }
 
     /*
@@ -31,7 +40,7 @@ public final class TimeSync {
 
     public final long newTick() {
         prevTime = time;
-        time = System.nanoTime();
+        time = clock.nanoTime();
         delta = time - prevTime;
         elapsedSecond += delta;
         elapsedMinute += delta;
@@ -50,26 +59,25 @@ public final class TimeSync {
     }
 
     public final void endTick() {
-        tpsCounter++;
-        lastTickLength = (System.nanoTime() - time);
+        finishTick();
         spin(length);
     }
 
+    public final void finishTick() {
+        tpsCounter++;
+        lastTickLength = (clock.nanoTime() - time);
+    }
+
+    public final long nextTickTime() {
+        return time + length;
+    }
+
     public final void pauseTick() {
         spin(pauseLength);
     }
 
     private final void spin(long length) {
-        while (true) {
-            nextLength = length - (System.nanoTime() - time);
-            cycles = (int) (nextLength / 1000);
-            if (cycles <= 0) {
-                break;
-            }
-            while (cycles-- > 0) {
-                Thread.yield();
-            }
-        }
+        clock.waitUntil(time + length);
     }
 
     /*
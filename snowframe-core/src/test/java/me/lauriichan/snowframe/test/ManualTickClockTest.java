@@ -0,0 +1,75 @@
+package me.lauriichan.snowframe.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import me.lauriichan.snowframe.util.tick.ManualTickClock;
+import me.lauriichan.snowframe.util.tick.TickScheduler;
+import me.lauriichan.snowframe.util.tick.TimeSync;
+
+public class ManualTickClockTest {
+
+    private static boolean awaitCount(AtomicInteger counter, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (counter.get() < expected) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(1);
+        }
+        return true;
+    }
+
+    @Test
+    public void testWaitBlocksUntilAdvanced() throws InterruptedException {
+        ManualTickClock clock = new ManualTickClock();
+        CountDownLatch done = new CountDownLatch(1);
+        Thread waiter = Thread.ofPlatform().daemon().start(() -> {
+            clock.waitUntil(100L);
+            done.countDown();
+        });
+        assertFalse(done.await(50, TimeUnit.MILLISECONDS));
+        clock.advance(50L);
+        assertFalse(done.await(50, TimeUnit.MILLISECONDS));
+        clock.advance(50L);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        waiter.join();
+    }
+
+    @Test
+    public void testAutoAdvanceJumpsTime() {
+        ManualTickClock clock = new ManualTickClock(true);
+        clock.waitUntil(TimeUnit.SECONDS.toNanos(3));
+        assertEquals(TimeUnit.SECONDS.toNanos(3), clock.nanoTime());
+    }
+
+    @Test
+    public void testEarlierHandleWakesWaitingWorker() throws InterruptedException {
+        ManualTickClock clock = new ManualTickClock();
+        TickScheduler scheduler = new TickScheduler(1, Thread.ofPlatform().daemon().factory(), clock);
+        try {
+            AtomicInteger slowTicks = new AtomicInteger();
+            TimeSync slowSync = new TimeSync(clock);
+            slowSync.length(1, TimeUnit.SECONDS);
+            scheduler.schedule(delta -> slowTicks.incrementAndGet(), slowSync);
+            assertTrue(awaitCount(slowTicks, 1));
+
+            // The only worker now waits for the slow handle which is due in one second
+            AtomicInteger fastTicks = new AtomicInteger();
+            scheduler.schedule(delta -> fastTicks.incrementAndGet(), new TimeSync(clock));
+            assertTrue(awaitCount(fastTicks, 1), "Newly scheduled handle starved behind a later deadline");
+            assertEquals(1, slowTicks.get());
+
+            clock.advance(1, TimeUnit.SECONDS);
+            assertTrue(awaitCount(slowTicks, 2), "Advancing the clock didn't wake the worker");
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,93 @@
+package me.lauriichan.snowframe.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import me.lauriichan.snowframe.util.concurrent.Parallel;
+
+public class ParallelTest {
+
+    @Test
+    public void testOrderedConsumesInIndexOrder() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Thread caller = Thread.currentThread();
+            for (int run = 0; run < 20; run++) {
+                IntArrayList consumed = new IntArrayList();
+                Parallel.ordered(200, 16, index -> {
+                    // Later indices regularly finish before earlier ones
+                    sleep(ThreadLocalRandom.current().nextInt(200));
+                    return "value-" + index;
+                }, (value, index) -> {
+                    assertSame(caller, Thread.currentThread());
+                    assertEquals("value-" + index, value);
+                    consumed.add(index);
+                }, executor);
+                assertEquals(200, consumed.size());
+                for (int i = 0; i < consumed.size(); i++) {
+                    assertEquals(i, consumed.getInt(i));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testOrderedStaysWithinWindow() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            AtomicInteger produced = new AtomicInteger();
+            AtomicInteger maxAhead = new AtomicInteger();
+            AtomicInteger consumed = new AtomicInteger();
+            Parallel.ordered(100, 4, index -> {
+                int ahead = produced.incrementAndGet() - consumed.get();
+                maxAhead.accumulateAndGet(ahead, Math::max);
+                return index;
+            }, (value, index) -> consumed.set(index + 1), executor);
+            assertEquals(100, produced.get());
+            // The producer of index i + window is only started once every index before i was consumed
+            assertTrue(maxAhead.get() <= 5, "Produced " + maxAhead.get() + " values ahead");
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testRunRethrowsTaskFailure() {
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> Parallel.run(0, 8, index -> {
+            if (index == 5) {
+                throw new IllegalStateException("Task " + index);
+            }
+        }, Parallel.virtualExecutor("ParallelTest")));
+        assertEquals("Task 5", exception.getMessage());
+    }
+
+    @Test
+    public void testRunCoversRange() {
+        int[] values = new int[10];
+        Parallel.run(2, 8, index -> values[index] = index, Parallel.virtualExecutor("ParallelTest"));
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(i >= 2 && i < 8 ? i : 0, values[i]);
+        }
+    }
+
+    private static void sleep(int micros) {
+        try {
+            TimeUnit.MICROSECONDS.sleep(micros);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
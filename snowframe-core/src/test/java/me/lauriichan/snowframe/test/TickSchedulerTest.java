@@ -0,0 +1,108 @@
+package me.lauriichan.snowframe.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import me.lauriichan.snowframe.util.tick.SimpleTickTimer;
+import me.lauriichan.snowframe.util.tick.TickScheduler;
+import me.lauriichan.snowframe.util.tick.TickScheduler.Handle;
+
+public class TickSchedulerTest {
+
+    private static TickScheduler scheduler(int threads) {
+        return new TickScheduler(threads, Thread.ofPlatform().daemon().uncaughtExceptionHandler((thread, error) -> {}).factory());
+    }
+
+    @Test
+    public void testRestartNeverOverlapsTicks() throws InterruptedException {
+        TickScheduler scheduler = scheduler(4);
+        try {
+            AtomicInteger active = new AtomicInteger();
+            AtomicInteger overlaps = new AtomicInteger();
+            SimpleTickTimer timer = new SimpleTickTimer(scheduler);
+            timer.sync().length(1, TimeUnit.MILLISECONDS);
+            timer.add(delta -> {
+                if (active.incrementAndGet() != 1) {
+                    overlaps.incrementAndGet();
+                }
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                active.decrementAndGet();
+            });
+            for (int i = 0; i < 50; i++) {
+                timer.start();
+                Thread.sleep(2);
+                timer.stop();
+                assertEquals(0, active.get(), "Tick still running after stop returned");
+            }
+            assertEquals(0, overlaps.get());
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testErrorKeepsTimerAlive() throws InterruptedException {
+        TickScheduler scheduler = scheduler(1);
+        try {
+            AtomicInteger ticks = new AtomicInteger();
+            SimpleTickTimer timer = new SimpleTickTimer(scheduler);
+            timer.sync().length(1, TimeUnit.MILLISECONDS);
+            timer.add(delta -> {
+                if (ticks.incrementAndGet() == 1) {
+                    throw new AssertionError("First tick fails");
+                }
+            });
+            timer.start();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (ticks.get() < 3 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            timer.stop();
+            assertTrue(ticks.get() >= 3, "Timer stopped ticking after an error");
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testShutdownCancelsAndAwaitsHandles() throws InterruptedException {
+        TickScheduler scheduler = scheduler(2);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger ticks = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        Handle running = scheduler.schedule(delta -> {
+            active.incrementAndGet();
+            ticks.incrementAndGet();
+            started.countDown();
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            active.decrementAndGet();
+        });
+        running.sync().length(1, TimeUnit.MILLISECONDS);
+        Handle paused = scheduler.schedule(delta -> {});
+        paused.pause();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        scheduler.shutdown();
+        assertEquals(0, active.get(), "Tick still running after shutdown returned");
+        assertFalse(running.isAlive());
+        assertFalse(paused.isAlive());
+        int ticked = ticks.get();
+        Thread.sleep(50);
+        assertEquals(ticked, ticks.get());
+        assertThrows(IllegalStateException.class, () -> scheduler.schedule(delta -> {}));
+    }
+
+}
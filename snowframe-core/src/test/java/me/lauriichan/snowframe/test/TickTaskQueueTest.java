@@ -0,0 +1,107 @@
+package me.lauriichan.snowframe.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import me.lauriichan.snowframe.util.tick.ManualTickClock;
+import me.lauriichan.snowframe.util.tick.TickTaskQueue;
+
+public class TickTaskQueueTest {
+
+    @Test
+    public void testProducersKeepTheirOrder() throws InterruptedException {
+        int producers = 8;
+        int tasks = 20_000;
+        TickTaskQueue queue = new TickTaskQueue();
+        ManualTickClock clock = new ManualTickClock();
+        IntArrayList[] received = new IntArrayList[producers];
+        for (int i = 0; i < producers; i++) {
+            received[i] = new IntArrayList(tasks);
+        }
+        CountDownLatch start = new CountDownLatch(1);
+        ObjectArrayList<Thread> threads = new ObjectArrayList<>();
+        for (int i = 0; i < producers; i++) {
+            int producer = i;
+            threads.add(Thread.ofPlatform().daemon().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException exception) {
+                    return;
+                }
+                for (int task = 0; task < tasks; task++) {
+                    int value = task;
+                    // Only the consuming thread touches the lists
+                    queue.execute(() -> received[producer].add(value));
+                }
+            }));
+        }
+        start.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        int executed = 0;
+        while (executed < producers * tasks) {
+            executed += queue.drain(clock);
+            assertTrue(System.nanoTime() < deadline, "Only " + executed + " tasks were executed");
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, queue.drain(clock));
+        assertTrue(queue.isEmpty());
+        for (int i = 0; i < producers; i++) {
+            assertEquals(tasks, received[i].size());
+            for (int task = 0; task < tasks; task++) {
+                assertEquals(task, received[i].getInt(task), "Producer " + i + " lost its order");
+            }
+        }
+    }
+
+    @Test
+    public void testDrainStopsWhenBudgetIsUsed() {
+        TickTaskQueue queue = new TickTaskQueue();
+        ManualTickClock clock = new ManualTickClock();
+        queue.budget(5, TimeUnit.MILLISECONDS);
+        IntArrayList ran = new IntArrayList();
+        for (int i = 0; i < 10; i++) {
+            int value = i;
+            queue.execute(() -> {
+                ran.add(value);
+                clock.advance(2, TimeUnit.MILLISECONDS);
+            });
+        }
+        // The third task reaches the budget, the rest stays queued
+        assertEquals(3, queue.drain(clock));
+        assertFalse(queue.isEmpty());
+        assertEquals(3, queue.drain(clock));
+        assertEquals(3, queue.drain(clock));
+        assertEquals(1, queue.drain(clock));
+        assertTrue(queue.isEmpty());
+        for (int i = 0; i < ran.size(); i++) {
+            assertEquals(i, ran.getInt(i));
+        }
+    }
+
+    @Test
+    public void testFailingTaskDoesNotStopDrain() {
+        TickTaskQueue queue = new TickTaskQueue();
+        ManualTickClock clock = new ManualTickClock();
+        AtomicReference<RuntimeException> caught = new AtomicReference<>();
+        queue.exceptionHandler(caught::set);
+        IntArrayList ran = new IntArrayList();
+        queue.execute(() -> ran.add(0));
+        queue.execute(() -> {
+            throw new IllegalStateException("Task failed");
+        });
+        queue.execute(() -> ran.add(2));
+        assertEquals(3, queue.drain(clock));
+        assertEquals("Task failed", caught.get().getMessage());
+        assertEquals(2, ran.size());
+    }
+
+}
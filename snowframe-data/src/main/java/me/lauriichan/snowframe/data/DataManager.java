@@ -1,5 +1,8 @@
 package me.lauriichan.snowframe.data;
 
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 import it.unimi.dsi.fastutil.objects.Object2ObjectArrayMap;
@@ -9,9 +12,12 @@ import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import it.unimi.dsi.fastutil.objects.ObjectCollection;
 import it.unimi.dsi.fastutil.objects.ObjectList;
 import me.lauriichan.snowframe.SnowFrame;
+import me.lauriichan.snowframe.util.concurrent.Parallel;
 
 public final class DataManager {
 
+    static final Executor DEFAULT_EXECUTOR = Parallel.virtualExecutor("DataIO");
+
     private final Object2ObjectArrayMap<Class<? extends ISingleDataExtension>, DataWrapper<?, ?>> data = new Object2ObjectArrayMap<>();
     private final Object2ObjectArrayMap<Class<? extends IMultiDataExtension>, MultiDataWrapper<?, ?, ?, ?, ?>> multiData = new Object2ObjectArrayMap<>();
 
@@ -44,6 +50,19 @@ public final class DataManager {
         return Object2ObjectMaps.unmodifiable(results);
     }
 
+    public Object2ObjectMap<IDataWrapper<?, ?>, int[]> reloadParallel(boolean force, boolean wipeAfterLoad) {
+        return reload(force, wipeAfterLoad, DEFAULT_EXECUTOR);
+    }
+
+    /**
+     * Reloads all data concurrently on the provided executor and waits until all
+     * of it is done. Wrappers of the same order run concurrently while a lower
+     * order is only started once every higher order is done.
+     */
+    public Object2ObjectMap<IDataWrapper<?, ?>, int[]> reload(boolean force, boolean wipeAfterLoad, Executor executor) {
+        return runParallel(wrappers(), wrapper -> wrapper.reload(force, wipeAfterLoad), executor);
+    }
+
     public Object2ObjectMap<IDataWrapper<?, ?>, int[]> save() {
         return save(false);
     }
@@ -55,6 +74,42 @@ public final class DataManager {
         return Object2ObjectMaps.unmodifiable(results);
     }
 
+    public Object2ObjectMap<IDataWrapper<?, ?>, int[]> saveParallel(boolean force) {
+        return save(force, DEFAULT_EXECUTOR);
+    }
+
+    /**
+     * Saves all data concurrently on the provided executor and waits until all of
+     * it is done. Wrappers of the same order run concurrently while a lower order
+     * is only started once every higher order is done.
+     */
+    public Object2ObjectMap<IDataWrapper<?, ?>, int[]> save(boolean force, Executor executor) {
+        return runParallel(wrappers(), wrapper -> wrapper.save(force), executor);
+    }
+
+    private Object2ObjectMap<IDataWrapper<?, ?>, int[]> runParallel(ObjectList<IDataWrapper<?, ?>> wrappers,
+        Function<IDataWrapper<?, ?>, int[]> action, Executor executor) {
+        Objects.requireNonNull(executor);
+        int[][] states = new int[wrappers.size()][];
+        int start = 0, end;
+        while (start < states.length) {
+            // Wrappers are sorted by order, so every order level is a consecutive range
+            int order = wrappers.get(start).order();
+            end = start + 1;
+            while (end < states.length && wrappers.get(end).order() == order) {
+                end++;
+            }
+            Parallel.run(start, end, index -> states[index] = action.apply(wrappers.get(index)), executor);
+            start = end;
+        }
+        // Keep the result order the same as if the wrappers were run one after another
+        Object2ObjectArrayMap<IDataWrapper<?, ?>, int[]> results = new Object2ObjectArrayMap<>(states.length);
+        for (int i = 0; i < states.length; i++) {
+            results.put(wrappers.get(i), states[i]);
+        }
+        return Object2ObjectMaps.unmodifiable(results);
+    }
+
     public ObjectList<IDataWrapper<?, ?>> wrappers() {
         return Stream
             .concat(Stream.concat(data.values().stream(), multiData.values().stream().flatMap(config -> config.wrappers().stream())),
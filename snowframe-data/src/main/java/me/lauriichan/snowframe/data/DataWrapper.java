@@ -7,7 +7,9 @@ import me.lauriichan.snowframe.DataModule;
 import me.lauriichan.snowframe.SnowFrame;
 import me.lauriichan.snowframe.data.IDataHandler.Wrapper;
 import me.lauriichan.snowframe.extension.Order;
+import me.lauriichan.snowframe.resource.source.ContentHash;
 import me.lauriichan.snowframe.resource.source.IDataSource;
+import me.lauriichan.snowframe.resource.source.MemoryDataSource;
 
 public final class DataWrapper<T, D extends IFileDataExtension<T>> implements IDataWrapper<T, D> {
 
@@ -52,6 +54,7 @@ public final class DataWrapper<T, D extends IFileDataExtension<T>> implements ID
     private final IDataHandler<T> handler;
 
     private volatile long lastTimeModified = -1L;
+    private volatile long contentHash = ContentHash.NONE;
     
     @SuppressWarnings("unchecked")
     public DataWrapper(final SnowFrame<?> frame, final D extension, final String path) {
@@ -115,8 +118,7 @@ public final class DataWrapper<T, D extends IFileDataExtension<T>> implements ID
             }
             if (migrator != null) {
                 try {
-                    handler.load(value, source);
-                    lastTimeModified = source.lastModified();
+                    load(value);
                 } catch (final Exception exception) {
                     logger.warning("Failed to load data from '{0}'!", exception, path);
                     return FAIL_IO_LOAD;
@@ -139,8 +141,7 @@ public final class DataWrapper<T, D extends IFileDataExtension<T>> implements ID
                 }
             }
             try {
-                handler.load(value, source);
-                lastTimeModified = source.lastModified();
+                load(value);
             } catch (final Exception exception) {
                 logger.warning("Failed to load data from '{0}'!", exception, path);
                 return FAIL_IO_LOAD;
@@ -171,14 +172,8 @@ public final class DataWrapper<T, D extends IFileDataExtension<T>> implements ID
         if (migrator != null) {
             value.version(migrator.getTargetVersion(dataType));
         }
-        try {
-            handler.save(value, source);
-            lastTimeModified = source.lastModified();
-        } catch (final Exception exception) {
-            logger.warning("Failed to save data to '{0}'!", exception, path);
-            return FAIL_IO_SAVE;
-        }
-        return SUCCESS;
+        final int state = write(value, false);
+        return state == SKIPPED ? SUCCESS : state;
     }
 
     @Override
@@ -202,13 +197,43 @@ public final class DataWrapper<T, D extends IFileDataExtension<T>> implements ID
         if (migrator != null) {
             value.version(migrator.getTargetVersion(dataType));
         }
+        return write(value, force);
+    }
+
+    private void load(final Wrapper<T> value) throws Exception {
+        final long modified = source.lastModified();
+        final byte[] content = ContentHash.read(source);
+        handler.load(value, new MemoryDataSource(path, content));
+        lastTimeModified = modified;
+        contentHash = ContentHash.of(content);
+    }
+
+    private int write(final Wrapper<T> value, final boolean force) {
+        final MemoryDataSource memory = new MemoryDataSource(path);
         try {
-            handler.save(value, source);
-            lastTimeModified = source.lastModified();
+            handler.save(value, memory);
         } catch (final Exception exception) {
             logger.warning("Failed to save data to '{0}'!", exception, path);
             return FAIL_IO_SAVE;
         }
+        final byte[] content = memory.content();
+        if (content == null) {
+            return SKIPPED;
+        }
+        // The known hash is only valid if the source wasn't changed by someone else, forced writes ignore it
+        final long previousHash = !force && lastTimeModified == source.lastModified() ? contentHash : ContentHash.NONE;
+        final long hash;
+        try {
+            hash = ContentHash.write(source, content, previousHash);
+        } catch (final Exception exception) {
+            logger.warning("Failed to save data to '{0}'!", exception, path);
+            return FAIL_IO_SAVE;
+        }
+        if (hash == ContentHash.NONE) {
+            return SKIPPED;
+        }
+        contentHash = hash;
+        lastTimeModified = source.lastModified();
         return SUCCESS;
     }
 
@@ -3,28 +3,31 @@ package me.lauriichan.snowframe.data;
 import java.io.File;
 import java.util.Collections;
 import java.util.Objects;
+import java.util.concurrent.Executor;
 
 import it.unimi.dsi.fastutil.ints.IntArrayList;
-import it.unimi.dsi.fastutil.objects.Object2LongArrayMap;
-import it.unimi.dsi.fastutil.objects.Object2LongMap;
-import it.unimi.dsi.fastutil.objects.Object2LongMaps;
-import it.unimi.dsi.fastutil.objects.Object2ObjectArrayMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectMaps;
-import it.unimi.dsi.fastutil.objects.ObjectArraySet;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 import it.unimi.dsi.fastutil.objects.ObjectSet;
 import it.unimi.dsi.fastutil.objects.ReferenceArrayList;
 import me.lauriichan.laylib.logger.ISimpleLogger;
 import me.lauriichan.snowframe.DataModule;
 import me.lauriichan.snowframe.SnowFrame;
+import me.lauriichan.snowframe.data.DirectoryIndex.IndexEntry;
 import me.lauriichan.snowframe.data.IDirectoryDataExtension.FileData;
 import me.lauriichan.snowframe.data.IDirectoryDataExtension.FileKey;
 import me.lauriichan.snowframe.extension.Order;
+import me.lauriichan.snowframe.resource.source.ContentHash;
 import me.lauriichan.snowframe.resource.source.FileDataSource;
 import me.lauriichan.snowframe.resource.source.IDataSource;
+import me.lauriichan.snowframe.resource.source.MemoryDataSource;
 import me.lauriichan.snowframe.resource.source.PathDataSource;
 import me.lauriichan.snowframe.util.NamespacedKey;
+import me.lauriichan.snowframe.util.concurrent.Parallel;
 
 public final class DirectoryDataWrapper<T, D extends IDirectoryDataExtension<T>> implements IDataWrapper<T, D> {
 
@@ -32,16 +35,30 @@ public final class DirectoryDataWrapper<T, D extends IDirectoryDataExtension<T>>
 
     private static final int[] EMPTY = new int[0];
 
-    private static record Result(long timestamp, int state) {}
+    // Limits how many parsed files can wait to be loaded at once
+    private static final int PARSE_WINDOW = Math.max(16, Runtime.getRuntime().availableProcessors() * 8);
+
+    /**
+     * The result of loading or saving a file, the entry is {@code null} if the
+     * file is no longer known
+     */
+    private static record Result(IndexEntry entry, int state) {}
+
+    /**
+     * A parsed file that still has to be loaded, the value is {@code null} if
+     * the result is already final
+     */
+    private static record Parsed<T>(Result result, FileDataSource source, FileData<T> value) {}
 
     public static <T, D extends IDirectoryDataExtension<T>> DirectoryDataWrapper<T, D> create(final SnowFrame<?> frame, final D extension) {
         return new DirectoryDataWrapper<>(frame, DEFAULT_NAMESPACE, extension, extension.path());
     }
 
-    private final Object2ObjectMap<String, FileKey> pathToKey = Object2ObjectMaps.synchronize(new Object2ObjectArrayMap<>());
+    private final Object2ObjectMap<String, FileKey> pathToKey = Object2ObjectMaps.synchronize(new Object2ObjectOpenHashMap<>());
     private final String namespace;
 
-    private final Object2LongMap<FileKey> modified = Object2LongMaps.synchronize(new Object2LongArrayMap<>());
+    private final DirectoryIndex index = new DirectoryIndex();
+    private final File indexFile;
 
     private final ISimpleLogger logger;
     private final DataMigrator migrator;
@@ -57,6 +74,9 @@ public final class DirectoryDataWrapper<T, D extends IDirectoryDataExtension<T>>
     private final IDataSource rootSource;
     private final IDataHandler<T> handler;
 
+    // Migrations and saves are never run concurrently, even if loads are
+    private final Object callbackLock = new Object();
+
     @SuppressWarnings("unchecked")
     public DirectoryDataWrapper(final SnowFrame<?> frame, final String namespace, final D extension, final String path) {
         this.namespace = NamespacedKey.expectValidNamespace(namespace);
@@ -74,10 +94,12 @@ public final class DirectoryDataWrapper<T, D extends IDirectoryDataExtension<T>>
             throw new IllegalStateException("Unsupported data source for path '" + path + "': " + rootSource.getClass().getName());
         }
         this.handler = Objects.requireNonNull(extension.handler(), "Data handler can't be null");
-        modified.defaultReturnValue(0);
         Order order = dataType.getAnnotation(Order.class);
         this.order = order == null ? 0 : order.value();
         data.keyWrapper(this::keyOf);
+        File parent = root.getAbsoluteFile().getParentFile();
+        this.indexFile = data.persistentIndex() && parent != null ? new File(parent, '.' + root.getName() + ".index") : null;
+        readIndex();
     }
 
     protected FileKey keyOf(String path, String extension) {
@@ -117,6 +139,15 @@ public final class DirectoryDataWrapper<T, D extends IDirectoryDataExtension<T>>
         return root;
     }
 
+    /**
+     * Gets the file that the index of known files is persisted to
+     * 
+     * @return the index file or {@code null} if the index isn't persisted
+     */
+    public File indexFile() {
+        return indexFile;
+    }
+
     @Override
     public IDataSource source() {
         return rootSource;
@@ -133,6 +164,25 @@ public final class DirectoryDataWrapper<T, D extends IDirectoryDataExtension<T>>
     }
 
     public int[] reloadDirectory(final boolean force, final boolean wipeAfterLoad) {
+        return reloadFiles(force, wipeAfterLoad, null);
+    }
+
+    public int[] reloadDirectoryParallel(final boolean force, final boolean wipeAfterLoad) {
+        return reloadFiles(force, wipeAfterLoad, DataManager.DEFAULT_EXECUTOR);
+    }
+
+    /**
+     * Reloads the directory while files are read and parsed concurrently on the
+     * provided executor, the data handler has to support this. Files are passed
+     * to {@link IDirectoryDataExtension#onLoad(ISimpleLogger, FileData)} in the
+     * same order as a sequential reload would, unless the extension allows
+     * {@link IDirectoryDataExtension#concurrentLoad() concurrent loads}.
+     */
+    public int[] reloadDirectory(final boolean force, final boolean wipeAfterLoad, final Executor executor) {
+        return reloadFiles(force, wipeAfterLoad, Objects.requireNonNull(executor));
+    }
+
+    private int[] reloadFiles(final boolean force, final boolean wipeAfterLoad, final Executor executor) {
         if (!root.isDirectory()) {
             if (root.exists()) {
                 root.delete();
@@ -141,34 +191,35 @@ public final class DirectoryDataWrapper<T, D extends IDirectoryDataExtension<T>>
             return EMPTY;
         }
         data.onLoadStart(logger);
-        ObjectArraySet<FileKey> pending = new ObjectArraySet<>(modified.keySet());
+        ObjectOpenHashSet<FileKey> pending = new ObjectOpenHashSet<>(index.keys());
         if (data.removeNewDataOnReload()) {
             pending.addAll(data.newData());
         }
         try {
             File[] files = root.listFiles();
             if (files == null || files.length == 0) {
-                modified.clear();
+                index.clear();
                 return EMPTY;
             }
             ReferenceArrayList<File> fileQueue = new ReferenceArrayList<>();
             Collections.addAll(fileQueue, files);
-            IntArrayList stateList = new IntArrayList();
+            ReferenceArrayList<File> foundFiles = new ReferenceArrayList<>();
+            ObjectArrayList<FileKey> foundKeys = new ObjectArrayList<>();
             File file;
             String name, path, extension;
             boolean isFile;
-            int pathLength = rootSource.getPath().length() + 1, index;
+            int pathLength = rootSource.getPath().length() + 1, dot;
             while (!fileQueue.isEmpty()) {
                 file = fileQueue.pop();
                 name = file.getName();
                 extension = null;
                 if (isFile = file.isFile()) {
-                    index = name.lastIndexOf('.');
-                    if (index == -1) {
+                    dot = name.lastIndexOf('.');
+                    if (dot == -1) {
                         extension = null;
                     } else {
-                        extension = name.substring(index + 1, name.length());
-                        name = name.substring(0, index);
+                        extension = name.substring(dot + 1, name.length());
+                        name = name.substring(0, dot);
                     }
                 }
                 if ((!data.searchSupportedDirectories() && !isFile) || !data.isSupported(file, name, extension, isFile)) {
@@ -194,80 +245,152 @@ public final class DirectoryDataWrapper<T, D extends IDirectoryDataExtension<T>>
                     continue;
                 }
                 pending.remove(key);
-                long lastModified = modified.getLong(name);
-                Result newModified = reload(file, key, lastModified, force, wipeAfterLoad);
-                stateList.add(newModified.state());
-                if (newModified.timestamp() == Long.MIN_VALUE) {
-                    modified.removeLong(key);
-                    continue;
-                }
-                if (newModified.timestamp() != lastModified) {
-                    modified.put(key, newModified.timestamp());
+                foundFiles.add(file);
+                foundKeys.add(key);
+            }
+            if (executor == null) {
+                int[] states = new int[foundFiles.size()];
+                for (int i = 0; i < states.length; i++) {
+                    states[i] = reload(foundFiles.get(i), foundKeys.get(i), force, wipeAfterLoad);
                 }
+                return states;
             }
-            return stateList.toIntArray();
+            if (data.concurrentLoad()) {
+                return reloadConcurrent(foundFiles, foundKeys, force, wipeAfterLoad, executor);
+            }
+            return reloadOrdered(foundFiles, foundKeys, force, wipeAfterLoad, executor);
         } finally {
             data.onLoadEnd(logger);
             if (data.removeNewDataOnReload()) {
                 data.clearNewData();
             }
             for (FileKey key : pending) {
-                modified.removeLong(key);
+                index.remove(key);
                 data.onDeleted(logger, key);
             }
             data.onDeleteDone(logger, this);
+            writeIndex();
         }
     }
 
-    private Result reload(File file, FileKey key, long modified, boolean force, boolean wipeAfterLoad) {
+    private int reload(File file, FileKey key, boolean force, boolean wipeAfterLoad) {
+        IndexEntry entry = index.get(key);
+        Result result = load(parse(file, key, entry, force), wipeAfterLoad);
+        index.update(key, entry, result.entry());
+        return result.state();
+    }
+
+    private int[] reloadConcurrent(ReferenceArrayList<File> files, ObjectArrayList<FileKey> keys, boolean force, boolean wipeAfterLoad,
+        Executor executor) {
+        int[] states = new int[files.size()];
+        Parallel.run(0, states.length,
+            fileIndex -> states[fileIndex] = reload(files.get(fileIndex), keys.get(fileIndex), force, wipeAfterLoad), executor);
+        return states;
+    }
+
+    private int[] reloadOrdered(ReferenceArrayList<File> files, ObjectArrayList<FileKey> keys, boolean force, boolean wipeAfterLoad,
+        Executor executor) {
+        int[] states = new int[files.size()];
+        IndexEntry[] entries = new IndexEntry[states.length];
+        // Files are loaded in order while the following files are parsed in the background
+        Parallel.<Parsed<T>>ordered(states.length, PARSE_WINDOW, fileIndex -> {
+            IndexEntry entry = entries[fileIndex] = index.get(keys.get(fileIndex));
+            return parse(files.get(fileIndex), keys.get(fileIndex), entry, force);
+        }, (parsed, fileIndex) -> {
+            Result result = load(parsed, wipeAfterLoad);
+            states[fileIndex] = result.state();
+            index.update(keys.get(fileIndex), entries[fileIndex], result.entry());
+        }, executor);
+        return states;
+    }
+
+    /**
+     * Reads and parses a file unless it didn't change, this doesn't call into
+     * the extension and can therefore run concurrently
+     */
+    private Parsed<T> parse(File file, FileKey key, IndexEntry entry, boolean force) {
         long lastTimeModified = file.lastModified();
-        if (!force && modified == lastTimeModified) {
-            return new Result(lastTimeModified, IDataWrapper.SKIPPED);
+        if (!force && entry != null && entry.isLoaded() && entry.modified() == lastTimeModified && entry.size() == file.length()) {
+            return new Parsed<>(new Result(entry, IDataWrapper.SKIPPED), null, null);
         }
         FileDataSource source = new FileDataSource(file);
+        byte[] content;
+        try {
+            content = ContentHash.read(source);
+        } catch (final Exception exception) {
+            logger.warning("Failed to load data from '{0}/{1}'!", exception, path, key.location().key());
+            return new Parsed<>(new Result(new IndexEntry(lastTimeModified, file.length(), ContentHash.NONE), IDataWrapper.FAIL_IO_LOAD),
+                null, null);
+        }
+        IndexEntry current = new IndexEntry(source.lastModified(), content.length, ContentHash.of(content));
+        if (!force && entry != null && entry.isLoaded() && entry.hash() == current.hash()) {
+            // Only the timestamp changed, the content is still the same
+            return new Parsed<>(new Result(current, IDataWrapper.SKIPPED), null, null);
+        }
         FileData<T> value = new FileData<>(file, key);
+        try {
+            handler.load(value, new MemoryDataSource(source.getPath(), content));
+        } catch (final Exception exception) {
+            logger.warning("Failed to load data from '{0}/{1}'!", exception, path, key.location().key());
+            return new Parsed<>(new Result(current.failed(), IDataWrapper.FAIL_IO_LOAD), null, null);
+        }
+        return new Parsed<>(new Result(current, IDataWrapper.SUCCESS), source, value);
+    }
+
+    private Result load(Parsed<T> parsed, boolean wipeAfterLoad) {
+        if (parsed.value() == null) {
+            return parsed.result();
+        }
+        FileDataSource source = parsed.source();
+        FileData<T> value = parsed.value();
+        FileKey key = value.key();
+        IndexEntry current = parsed.result().entry();
         if (migrator != null) {
-            try {
-                handler.load(value, source);
-                lastTimeModified = source.lastModified();
-            } catch (final Exception exception) {
-                logger.warning("Failed to load data from '{0}/{1}'!", exception, path, key.location().key());
-                return new Result(lastTimeModified, IDataWrapper.FAIL_IO_LOAD);
-            }
             int version = value.version();
             if (migrator.needsMigration(dataType, version)) {
                 try {
-                    int newVersion = migrator.migrate(logger, version, value, data);
-                    value.version(newVersion);
+                    synchronized (callbackLock) {
+                        value.version(migrator.migrate(logger, version, value, data));
+                    }
                 } catch (DataMigrationFailedException exception) {
                     logger.warning("Failed to migrate data of '{0}/{1}'!", exception, path, key.location().key());
-                    return new Result(lastTimeModified, IDataWrapper.FAIL_DATA_MIGRATE);
+                    return new Result(current.failed(), IDataWrapper.FAIL_DATA_MIGRATE);
                 }
                 try {
                     handler.save(value, source);
                 } catch (final Exception exception) {
                     logger.warning("Failed to save migrated to '{0}/{1}'!", exception, path, key.location().key());
-                    return new Result(lastTimeModified, IDataWrapper.FAIL_IO_SAVE);
+                    return new Result(current.failed(), IDataWrapper.FAIL_IO_SAVE);
+                }
+                try {
+                    current = load(source, value);
+                } catch (final Exception exception) {
+                    logger.warning("Failed to load data from '{0}/{1}'!", exception, path, key.location().key());
+                    return new Result(new IndexEntry(source.lastModified(), value.file().length(), ContentHash.NONE),
+                        IDataWrapper.FAIL_IO_LOAD);
                 }
-            }
-            try {
-                handler.load(value, source);
-                lastTimeModified = source.lastModified();
-            } catch (final Exception exception) {
-                logger.warning("Failed to load data from '{0}/{1}'!", exception, path, key.location().key());
-                return new Result(lastTimeModified, IDataWrapper.FAIL_IO_LOAD);
             }
         }
         try {
             data.onLoad(logger, value);
         } catch (final Exception exception) {
             logger.warning("Failed to load data of '{0}/{1}'!", exception, path, key.location().key());
-            return new Result(lastTimeModified, IDataWrapper.FAIL_DATA_LOAD);
+            return new Result(current.failed(), IDataWrapper.FAIL_DATA_LOAD);
         }
         if (wipeAfterLoad) {
             value.value(null);
         }
-        return save(source, value, lastTimeModified);
+        Result result = save(source, value, current, false);
+        if (result.state() == IDataWrapper.SKIPPED) {
+            return new Result(result.entry(), IDataWrapper.SUCCESS);
+        }
+        return result;
+    }
+
+    private IndexEntry load(FileDataSource source, FileData<T> value) throws Exception {
+        byte[] content = ContentHash.read(source);
+        handler.load(value, new MemoryDataSource(source.getPath(), content));
+        return new IndexEntry(source.lastModified(), content.length, ContentHash.of(content));
     }
 
     @Override
@@ -279,20 +402,17 @@ public final class DirectoryDataWrapper<T, D extends IDirectoryDataExtension<T>>
         try {
             IntArrayList states = new IntArrayList();
             data.onSaveStart(logger);
-            ObjectArraySet<FileKey> saved = new ObjectArraySet<>();
-            if (data.saveKnownFiles() && !modified.isEmpty()) {
-                for (Object2LongMap.Entry<FileKey> entry : modified.object2LongEntrySet()) {
-                    File file = new File(root, entry.getKey().filePath());
-                    saved.add(entry.getKey());
-                    Result newModified = save(file, entry.getKey(), entry.getLongValue(), force);
-                    states.add(newModified.state());
-                    if (newModified.timestamp() == Long.MIN_VALUE) {
-                        modified.removeLong(entry.getKey());
+            ObjectOpenHashSet<FileKey> saved = new ObjectOpenHashSet<>();
+            if (data.saveKnownFiles() && !index.isEmpty()) {
+                for (FileKey key : index.keys()) {
+                    IndexEntry entry = index.get(key);
+                    if (entry == null) {
                         continue;
                     }
-                    if (newModified.timestamp() != entry.getLongValue()) {
-                        modified.put(entry.getKey(), newModified.timestamp());
-                    }
+                    saved.add(key);
+                    Result result = save(new File(root, key.filePath()), key, entry, force);
+                    states.add(result.state());
+                    index.update(key, entry, result.entry());
                 }
             }
             ObjectSet<FileKey> set = data.newData();
@@ -306,52 +426,96 @@ public final class DirectoryDataWrapper<T, D extends IDirectoryDataExtension<T>>
                     continue;
                 }
                 File file = new File(root, key.filePath());
-                Result newModified = save(file, key, Long.MIN_VALUE, force);
-                states.add(newModified.state());
-                if (newModified.timestamp() == Long.MIN_VALUE) {
+                Result result = save(file, key, null, force);
+                states.add(result.state());
+                if (result.entry() == null) {
                     continue;
                 }
-                modified.put(key, newModified.timestamp());
+                index.update(key, null, result.entry());
                 iterator.remove();
             }
             return states.toIntArray();
         } finally {
             data.onSaveEnd(logger);
+            writeIndex();
         }
     }
 
-    private Result save(File file, FileKey key, long modified, boolean force) {
-        long lastTimeModified = file.lastModified();
-        if (!force && modified == lastTimeModified) {
-            return new Result(lastTimeModified, IDataWrapper.SKIPPED);
+    private Result save(File file, FileKey key, IndexEntry entry, boolean force) {
+        if (!force && entry != null && entry.modified() == file.lastModified()) {
+            return new Result(entry, IDataWrapper.SKIPPED);
         }
         FileDataSource source = new FileDataSource(file);
         FileData<T> value = new FileData<>(file, key);
-        return save(source, value, modified);
+        return save(source, value, entry, force);
     }
 
-    private Result save(FileDataSource source, FileData<T> value, long lastTimeModified) {
+    private Result save(FileDataSource source, FileData<T> value, IndexEntry entry, boolean force) {
         try {
-            data.onSave(logger, value);
+            synchronized (callbackLock) {
+                data.onSave(logger, value);
+            }
         } catch (final Exception exception) {
             logger.warning("Failed to save data of '{0}/{1}'!", exception, path, value.key().location().key());
-            return new Result(lastTimeModified, IDataWrapper.FAIL_DATA_SAVE);
+            return new Result(entry, IDataWrapper.FAIL_DATA_SAVE);
         }
         if (migrator != null) {
             value.version(migrator.getTargetVersion(dataType));
         }
         if (value.shouldBeDeleted()) {
             value.file().delete();
-            return new Result(Long.MIN_VALUE, IDataWrapper.SUCCESS);
+            return new Result(null, IDataWrapper.SUCCESS);
         }
+        MemoryDataSource memory = new MemoryDataSource(source.getPath());
         try {
-            handler.save(value, source);
-            lastTimeModified = source.lastModified();
+            handler.save(value, memory);
         } catch (final Exception exception) {
             logger.warning("Failed to save data to '{0}/{1}'!", exception, path, value.key().location().key());
-            return new Result(lastTimeModified, IDataWrapper.FAIL_IO_SAVE);
+            return new Result(entry, IDataWrapper.FAIL_IO_SAVE);
+        }
+        byte[] content = memory.content();
+        if (content == null) {
+            return new Result(entry, IDataWrapper.SKIPPED);
+        }
+        // The known hash is only valid if the file wasn't changed by someone else, forced writes ignore it
+        long previousHash = !force && entry != null && source.lastModified() == entry.modified() ? entry.hash() : ContentHash.NONE;
+        long hash;
+        try {
+            hash = ContentHash.write(source, content, previousHash);
+        } catch (final Exception exception) {
+            logger.warning("Failed to save data to '{0}/{1}'!", exception, path, value.key().location().key());
+            return new Result(entry, IDataWrapper.FAIL_IO_SAVE);
+        }
+        if (hash == ContentHash.NONE) {
+            return new Result(entry, IDataWrapper.SKIPPED);
+        }
+        return new Result(new IndexEntry(source.lastModified(), content.length, hash), IDataWrapper.SUCCESS);
+    }
+
+    /*
+     * Index
+     */
+
+    private void readIndex() {
+        if (indexFile == null || !indexFile.isFile()) {
+            return;
+        }
+        try {
+            index.read(indexFile, this::keyOf);
+        } catch (final Exception exception) {
+            logger.warning("Failed to read data index '{0}'!", exception, indexFile.getPath());
+        }
+    }
+
+    private void writeIndex() {
+        if (indexFile == null || !index.isChanged()) {
+            return;
+        }
+        try {
+            index.write(indexFile);
+        } catch (final Exception exception) {
+            logger.warning("Failed to write data index '{0}'!", exception, indexFile.getPath());
         }
-        return new Result(lastTimeModified, IDataWrapper.SUCCESS);
     }
 
 }
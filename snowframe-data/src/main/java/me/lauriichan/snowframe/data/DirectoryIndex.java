@@ -0,0 +1,180 @@
+package me.lauriichan.snowframe.data;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.function.BiFunction;
+
+import it.unimi.dsi.fastutil.objects.Object2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectMaps;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import me.lauriichan.snowframe.data.IDirectoryDataExtension.FileKey;
+import me.lauriichan.snowframe.resource.source.ContentHash;
+
+/**
+ * The known state of every file of a {@link DirectoryDataWrapper}, can be
+ * persisted so that unchanged files are also skipped after a restart
+ */
+final class DirectoryIndex {
+
+    static final int MAGIC = 0x53464449;
+    static final byte FORMAT = 1;
+
+    /**
+     * The known state of a file, used to detect which files actually changed.
+     * Files that failed to load are kept with {@link ContentHash#NONE} as hash so
+     * that they are still known but never skipped by the next reload
+     */
+    static record IndexEntry(long modified, long size, long hash) {
+
+        boolean isLoaded() {
+            return hash != ContentHash.NONE;
+        }
+
+        IndexEntry failed() {
+            return hash == ContentHash.NONE ? this : new IndexEntry(modified, size, ContentHash.NONE);
+        }
+
+    }
+
+    private final Object2ObjectMap<FileKey, IndexEntry> entries = Object2ObjectMaps.synchronize(new Object2ObjectOpenHashMap<>());
+    private volatile boolean changed = false;
+
+    IndexEntry get(final FileKey key) {
+        return entries.get(key);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    boolean isChanged() {
+        return changed;
+    }
+
+    ObjectArrayList<FileKey> keys() {
+        synchronized (entries) {
+            return new ObjectArrayList<>(entries.keySet());
+        }
+    }
+
+    void update(final FileKey key, final IndexEntry previous, final IndexEntry next) {
+        if (next == null) {
+            remove(key);
+            return;
+        }
+        if (!next.equals(previous)) {
+            entries.put(key, next);
+            changed = true;
+        }
+    }
+
+    void remove(final FileKey key) {
+        if (entries.remove(key) != null) {
+            changed = true;
+        }
+    }
+
+    void clear() {
+        if (!entries.isEmpty()) {
+            entries.clear();
+            changed = true;
+        }
+    }
+
+    /*
+     * Persistence
+     */
+
+    /**
+     * Replaces the known entries with the entries stored in the file, files of
+     * an unknown format are ignored
+     *
+     * @param  file        the file to read
+     * @param  keyOf       creates the key of a path and extension
+     *
+     * @return             {@code true} if the file was read
+     *
+     * @throws IOException if the file couldn't be read, the index is empty
+     *                         afterwards
+     */
+    boolean read(final File file, final BiFunction<String, String, FileKey> keyOf) throws IOException {
+        entries.clear();
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (input.readInt() != MAGIC || input.readByte() != FORMAT) {
+                return false;
+            }
+            int amount = input.readInt();
+            String filePath, extension;
+            FileKey key;
+            IndexEntry entry;
+            for (int i = 0; i < amount; i++) {
+                filePath = input.readUTF();
+                extension = input.readBoolean() ? input.readUTF() : null;
+                entry = new IndexEntry(input.readLong(), input.readLong(), input.readLong());
+                if ((key = keyOf.apply(filePath, extension)) != null) {
+                    entries.put(key, entry);
+                }
+            }
+        } catch (final IOException | RuntimeException exception) {
+            entries.clear();
+            throw exception;
+        } finally {
+            changed = false;
+        }
+        return true;
+    }
+
+    /**
+     * Writes all entries to a temporary file which then replaces the file
+     *
+     * @param  file        the file to write
+     *
+     * @throws IOException if the file couldn't be written, the index is still
+     *                         marked as changed afterwards
+     */
+    void write(final File file) throws IOException {
+        changed = false;
+        File tempFile = new File(file.getPath() + ".tmp");
+        try {
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile.toPath())))) {
+                output.writeInt(MAGIC);
+                output.writeByte(FORMAT);
+                synchronized (entries) {
+                    output.writeInt(entries.size());
+                    for (Object2ObjectMap.Entry<FileKey, IndexEntry> entry : entries.object2ObjectEntrySet()) {
+                        FileKey key = entry.getKey();
+                        output.writeUTF(key.location().key());
+                        output.writeBoolean(key.extension() != null);
+                        if (key.extension() != null) {
+                            output.writeUTF(key.extension());
+                        }
+                        output.writeLong(entry.getValue().modified());
+                        output.writeLong(entry.getValue().size());
+                        output.writeLong(entry.getValue().hash());
+                    }
+                }
+            }
+            try {
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException exception) {
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (final IOException exception) {
+            changed = true;
+            throw exception;
+        }
+    }
+
+}
@@ -88,6 +88,31 @@ public interface IDirectoryDataExtension<T> extends IDataExtension<T> {
         return false;
     }
 
+    /**
+     * If the index of known files should be stored next to the directory, files
+     * that didn't change since the last run are then also skipped by the first
+     * reload after a restart and {@link #onLoad(ISimpleLogger, FileData)} is only
+     * called for new or changed files
+     *
+     * @return {@code true} if the index should be persisted
+     */
+    default boolean persistentIndex() {
+        return false;
+    }
+
+    /**
+     * If {@link #onLoad(ISimpleLogger, FileData)} can be called concurrently
+     * during a parallel reload, otherwise it is called in a deterministic order
+     * on the reloading thread. Migrations and
+     * {@link #onSave(ISimpleLogger, FileData)} are still only called by one
+     * thread at a time but their order isn't deterministic either
+     *
+     * @return {@code true} if files can be loaded concurrently
+     */
+    default boolean concurrentLoad() {
+        return false;
+    }
+
     default void onLoadStart(final ISimpleLogger logger) {}
 
     default void onLoad(final ISimpleLogger logger, final FileData<T> value) throws Exception {}
@@ -0,0 +1,183 @@
+package me.lauriichan.snowframe.data;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ObjectSet;
+import it.unimi.dsi.fastutil.objects.ObjectSets;
+import me.lauriichan.laylib.logger.ISimpleLogger;
+import me.lauriichan.snowframe.ISnowFrameApp;
+import me.lauriichan.snowframe.SnowFrame;
+import me.lauriichan.snowframe.lifecycle.Lifecycle;
+import me.lauriichan.snowframe.resource.source.IDataSource;
+
+public class DirectoryDataWrapperTest {
+
+    private static final class App implements ISnowFrameApp<App> {
+
+        private final SnowFrame<App> snowFrame = SnowFrame.builder(this).build();
+
+        @Override
+        public SnowFrame<App> snowFrame() {
+            return snowFrame;
+        }
+
+        @Override
+        public void registerLifecycle(final Lifecycle<App> lifecycle) {}
+
+    }
+
+    private static final class TextHandler implements IDataHandler<String> {
+
+        // Files whose content was read and parsed
+        private final ObjectSet<String> parsed = ObjectSets.synchronize(new ObjectOpenHashSet<>());
+
+        @Override
+        public void load(final Wrapper<String> wrapper, final IDataSource source) throws Exception {
+            parsed.add(((IDirectoryDataExtension.FileData<String>) wrapper).key().location().key());
+            final String content;
+            try (InputStream input = source.openReadableStream()) {
+                content = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            if (content.startsWith("broken")) {
+                throw new IllegalStateException("Broken file");
+            }
+            wrapper.value(content);
+        }
+
+        @Override
+        public void save(final Wrapper<String> wrapper, final IDataSource source) throws Exception {
+            try (OutputStream output = source.openWritableStream()) {
+                output.write(wrapper.value().getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+    }
+
+    private static final class TextExtension extends DirectoryDataExtension<String> {
+
+        private final TextHandler handler = new TextHandler();
+        private final ObjectSet<String> loaded = new ObjectOpenHashSet<>();
+
+        private final Path root;
+        private final boolean persistentIndex;
+
+        private TextExtension(final Path root, final boolean persistentIndex) {
+            this.root = root;
+            this.persistentIndex = persistentIndex;
+        }
+
+        @Override
+        public String path() {
+            return "fs://" + root.toAbsolutePath();
+        }
+
+        @Override
+        public IDataHandler<String> handler() {
+            return handler;
+        }
+
+        @Override
+        public boolean persistentIndex() {
+            return persistentIndex;
+        }
+
+        @Override
+        public void onLoad(final ISimpleLogger logger, final FileData<String> value) throws Exception {
+            loaded.add(value.key().location().key());
+        }
+
+    }
+
+    private static SnowFrame<App> snowFrame;
+
+    @BeforeAll
+    public static void start() {
+        snowFrame = new App().snowFrame();
+        assertTrue(snowFrame.lifecycle().execute(SnowFrame.LIFECYCLE_CHAIN_STARTUP));
+    }
+
+    private static Path setup(final Path directory) throws Exception {
+        // The index is stored next to the root, so the root has to be inside of the temporary directory
+        final Path root = Files.createDirectories(directory.resolve("data"));
+        Files.writeString(root.resolve("alpha.txt"), "alpha");
+        Files.writeString(root.resolve("beta.txt"), "beta");
+        Files.writeString(root.resolve("gamma.txt"), "broken");
+        return root;
+    }
+
+    private static TextExtension reload(final Path root, final boolean persistentIndex) {
+        final TextExtension extension = new TextExtension(root, persistentIndex);
+        final DirectoryDataWrapper<String, TextExtension> wrapper = new DirectoryDataWrapper<>(snowFrame,
+            DirectoryDataWrapper.DEFAULT_NAMESPACE, extension, extension.path());
+        wrapper.reloadDirectory(false, false);
+        return extension;
+    }
+
+    private static void assertFirstReload(final TextExtension extension) {
+        assertEquals(Set.of("alpha", "beta", "gamma"), extension.handler.parsed);
+        assertEquals(Set.of("alpha", "beta"), extension.loaded);
+    }
+
+    private static void assertChangedReload(final ObjectSet<String> parsed, final ObjectSet<String> loaded) {
+        // Unchanged files are skipped without being read, the failed file is retried
+        assertEquals(Set.of("beta", "gamma"), parsed);
+        assertEquals(Set.of("beta"), loaded);
+    }
+
+    @Test
+    public void testSecondReloadSkipsUnchangedFiles(@TempDir final Path directory) throws Exception {
+        final Path root = setup(directory);
+        final TextExtension extension = new TextExtension(root, false);
+        final DirectoryDataWrapper<String, TextExtension> wrapper = new DirectoryDataWrapper<>(snowFrame,
+            DirectoryDataWrapper.DEFAULT_NAMESPACE, extension, extension.path());
+        final int[] states = wrapper.reloadDirectory(false, false);
+        assertEquals(3, states.length);
+        assertFirstReload(extension);
+        assertNull(wrapper.indexFile());
+
+        Files.writeString(root.resolve("beta.txt"), "beta changed");
+        extension.handler.parsed.clear();
+        extension.loaded.clear();
+        wrapper.reloadDirectory(false, false);
+        assertChangedReload(extension.handler.parsed, extension.loaded);
+
+        Files.writeString(root.resolve("gamma.txt"), "gamma");
+        extension.handler.parsed.clear();
+        extension.loaded.clear();
+        wrapper.reloadDirectory(false, false);
+        assertEquals(Set.of("gamma"), extension.handler.parsed);
+        assertEquals(Set.of("gamma"), extension.loaded);
+    }
+
+    @Test
+    public void testPersistentIndexSkipsUnchangedFilesAfterRestart(@TempDir final Path directory) throws Exception {
+        final Path root = setup(directory);
+        assertFirstReload(reload(root, true));
+        assertTrue(Files.isRegularFile(directory.resolve(".data.index")));
+
+        Files.writeString(root.resolve("beta.txt"), "beta changed");
+        final TextExtension restarted = reload(root, true);
+        assertChangedReload(restarted.handler.parsed, restarted.loaded);
+    }
+
+    @Test
+    public void testWithoutPersistentIndexRestartLoadsAllFiles(@TempDir final Path directory) throws Exception {
+        final Path root = setup(directory);
+        assertFirstReload(reload(root, false));
+        assertFalse(Files.exists(directory.resolve(".data.index")));
+        assertFirstReload(reload(root, false));
+    }
+
+}
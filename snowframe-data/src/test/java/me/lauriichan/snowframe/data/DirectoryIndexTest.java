@@ -0,0 +1,102 @@
+package me.lauriichan.snowframe.data;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import me.lauriichan.snowframe.data.DirectoryIndex.IndexEntry;
+import me.lauriichan.snowframe.data.IDirectoryDataExtension.FileKey;
+import me.lauriichan.snowframe.resource.source.ContentHash;
+import me.lauriichan.snowframe.util.NamespacedKey;
+
+public class DirectoryIndexTest {
+
+    private static FileKey keyOf(String path, String extension) {
+        NamespacedKey location = NamespacedKey.of("snowframe", path);
+        return location == null ? null : new FileKey(location, extension);
+    }
+
+    @Test
+    public void testRoundTrip(@TempDir Path directory) throws IOException {
+        File file = directory.resolve(".data.index").toFile();
+        DirectoryIndex index = new DirectoryIndex();
+        FileKey json = keyOf("players/alice", "json");
+        FileKey plain = keyOf("players/bob", null);
+        FileKey failed = keyOf("worlds/overworld", "dat");
+        index.update(json, null, new IndexEntry(1000L, 42L, 0x1234_5678_9ABCL));
+        index.update(plain, null, new IndexEntry(2000L, 0L, 0L));
+        index.update(failed, null, new IndexEntry(3000L, 7L, 99L).failed());
+        assertTrue(index.isChanged());
+
+        index.write(file);
+        assertFalse(index.isChanged());
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+
+        DirectoryIndex read = new DirectoryIndex();
+        assertTrue(read.read(file, DirectoryIndexTest::keyOf));
+        assertFalse(read.isChanged());
+        assertEquals(3, read.size());
+        assertEquals(new IndexEntry(1000L, 42L, 0x1234_5678_9ABCL), read.get(json));
+        assertEquals(new IndexEntry(2000L, 0L, 0L), read.get(plain));
+        // Failed files stay known but are never treated as loaded
+        IndexEntry failedEntry = read.get(failed);
+        assertEquals(new IndexEntry(3000L, 7L, ContentHash.NONE), failedEntry);
+        assertFalse(failedEntry.isLoaded());
+        assertTrue(read.get(json).isLoaded());
+    }
+
+    @Test
+    public void testUnknownFormatIsIgnored(@TempDir Path directory) throws IOException {
+        File file = directory.resolve(".data.index").toFile();
+        try (DataOutputStream output = new DataOutputStream(Files.newOutputStream(file.toPath()))) {
+            output.writeInt(DirectoryIndex.MAGIC);
+            output.writeByte(DirectoryIndex.FORMAT + 1);
+            output.writeInt(1);
+        }
+        DirectoryIndex index = new DirectoryIndex();
+        index.update(keyOf("stale", null), null, new IndexEntry(1L, 1L, 1L));
+        assertFalse(index.read(file, DirectoryIndexTest::keyOf));
+        assertTrue(index.isEmpty());
+    }
+
+    @Test
+    public void testTruncatedFileClearsIndex(@TempDir Path directory) throws IOException {
+        File file = directory.resolve(".data.index").toFile();
+        DirectoryIndex index = new DirectoryIndex();
+        index.update(keyOf("a", "json"), null, new IndexEntry(1L, 2L, 3L));
+        index.update(keyOf("b", "json"), null, new IndexEntry(4L, 5L, 6L));
+        index.write(file);
+        byte[] content = Files.readAllBytes(file.toPath());
+        Files.write(file.toPath(), Arrays.copyOf(content, content.length - 4));
+
+        DirectoryIndex read = new DirectoryIndex();
+        assertThrows(IOException.class, () -> read.read(file, DirectoryIndexTest::keyOf));
+        assertTrue(read.isEmpty());
+    }
+
+    @Test
+    public void testUpdateTracksChanges() {
+        DirectoryIndex index = new DirectoryIndex();
+        FileKey key = keyOf("a", "json");
+        IndexEntry entry = new IndexEntry(1L, 2L, 3L);
+        index.update(key, null, entry);
+        assertTrue(index.isChanged());
+
+        DirectoryIndex unchanged = new DirectoryIndex();
+        unchanged.update(key, entry, entry);
+        assertFalse(unchanged.isChanged());
+        unchanged.remove(key);
+        assertFalse(unchanged.isChanged());
+        unchanged.update(key, null, null);
+        assertFalse(unchanged.isChanged());
+    }
+
+}
@@ -11,6 +11,8 @@ import me.lauriichan.snowframe.resource.source.PathDataSource;
 import me.lauriichan.snowframe.signal.SignalManager;
 import me.lauriichan.snowframe.util.color.SimpleColor;
 import me.lauriichan.snowframe.util.tick.BlockingTicker;
+import me.lauriichan.snowframe.util.tick.ITickClock;
+import me.lauriichan.snowframe.util.tick.TickTaskQueue;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -34,9 +36,6 @@ import imgui.ImGui;
 import imgui.flag.ImGuiConfigFlags;
 import imgui.gl3.ImGuiImplGl3;
 import imgui.glfw.ImGuiImplGlfw;
-import it.unimi.dsi.fastutil.PriorityQueue;
-import it.unimi.dsi.fastutil.PriorityQueues;
-import it.unimi.dsi.fastutil.objects.ObjectArrayFIFOQueue;
 
 @Extension
 public class ImGUIModule implements ISnowFrameModule {
@@ -48,7 +47,7 @@ public class ImGUIModule implements ISnowFrameModule {
 
     private final SimpleColor background = SimpleColor.sRGB(0, 0, 0, 0);
 
-    private final PriorityQueue<Runnable> taskQueue = PriorityQueues.synchronize(new ObjectArrayFIFOQueue<>());
+    private final TickTaskQueue taskQueue = new TickTaskQueue();
 
     private final ImGuiImplGlfw imGuiGlfw = new ImGuiImplGlfw();
     private final ImGuiImplGl3 imGuiGl3 = new ImGuiImplGl3();
@@ -87,6 +86,7 @@ public class ImGUIModule implements ISnowFrameModule {
             .register("start", Stage.MAIN, this::onStart);
 
         logger = lifecycle.snowFrame().logger();
+        taskQueue.exceptionHandler(exp -> logger.error("Failed to run task", exp));
         signalManager = lifecycle.snowFrame().module(SignalModule.class).signalManager();
     }
 
@@ -95,7 +95,11 @@ public class ImGUIModule implements ISnowFrameModule {
      */
 
     public void queueTask(Runnable runnable) {
-        taskQueue.enqueue(runnable);
+        taskQueue.execute(runnable);
+    }
+
+    public TickTaskQueue taskQueue() {
+        return taskQueue;
     }
 
     public void requestFontAtlasReload() {
@@ -278,14 +282,8 @@ public class ImGUIModule implements ISnowFrameModule {
     }
 
     private void render(SnowFrame<?> frame) {
-        // Execute queued tasks
-        while (!taskQueue.isEmpty()) {
-            try {
-                taskQueue.dequeue().run();
-            } catch (RuntimeException exp) {
-                frame.logger().error("Failed to run task", exp);
-            }
-        }
+        // Execute queued tasks, anything over budget is left for the next frame
+        taskQueue.drain(ITickClock.SYSTEM);
 
         // Refresh font atlas
         if (requestFontAtlasReload) {
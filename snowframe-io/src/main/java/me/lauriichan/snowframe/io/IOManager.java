@@ -12,6 +12,7 @@ public final class IOManager {
     // TODO: Add data handlers
 
     private final Object2ObjectMap<Class<?>, Object2ObjectMap<Class<?>, IIOHandler<?, ?>>> handlers = new Object2ObjectOpenHashMap<>();
+    private final Object2ObjectMap<Class<?>, ClassValue<IIOHandler<?, ?>>> lookups = new Object2ObjectOpenHashMap<>();
 
     public IOManager(SnowFrame<?> frame) {
         frame.extension(IIOHandler.class, true).callInstances(handler -> {
@@ -35,25 +36,43 @@ public final class IOManager {
             }
             map.put(handler.valueType(), handler);
         });
+        for (final Object2ObjectMap.Entry<Class<?>, Object2ObjectMap<Class<?>, IIOHandler<?, ?>>> entry : handlers
+            .object2ObjectEntrySet()) {
+            lookups.put(entry.getKey(), lookup(entry.getValue()));
+        }
+    }
+
+    private static ClassValue<IIOHandler<?, ?>> lookup(final Object2ObjectMap<Class<?>, IIOHandler<?, ?>> map) {
+        // Handlers never change after construction, so the resolved handler of every type can be cached
+        return new ClassValue<>() {
+            @Override
+            protected IIOHandler<?, ?> computeValue(final Class<?> type) {
+                final IIOHandler<?, ?> handler = map.get(type);
+                if (handler != null) {
+                    return handler;
+                }
+                for (final Object2ObjectMap.Entry<Class<?>, IIOHandler<?, ?>> entry : map.object2ObjectEntrySet()) {
+                    if (entry.getKey().isAssignableFrom(type)) {
+                        return entry.getValue();
+                    }
+                }
+                return null;
+            }
+        };
     }
 
     public <B, H extends SerializationHandler<B, ?>> B serialize(Class<H> handlerType, Object data) throws SerializationException {
         if (data == null) {
             return null;
         }
-        Object2ObjectMap<Class<?>, IIOHandler<?, ?>> map = handlers.get(handlerType);
-        if (map == null) {
+        ClassValue<IIOHandler<?, ?>> lookup = lookups.get(handlerType);
+        if (lookup == null) {
             throw new SerializationException("Unknown handler type '" + handlerType.getName() + "'");
         }
-        Class<?> dataClass = data.getClass();
-        IIOHandler<?, ?> handler = map.get(dataClass);
+        IIOHandler<?, ?> handler = lookup.get(data.getClass());
         if (handler == null) {
-            handler = map.entrySet().stream().filter(entry -> entry.getKey().isAssignableFrom(dataClass)).findFirst()
-                .map(entry -> entry.getValue()).orElse(null);
-            if (handler == null) {
-                throw new SerializationException("Failed to find handler of type '" + handlerType.getName()
-                    + "' in order to serialize data of type '" + data.getClass().getName() + "'.");
-            }
+            throw new SerializationException("Failed to find handler of type '" + handlerType.getName()
+                + "' in order to serialize data of type '" + data.getClass().getName() + "'.");
         }
         SerializationHandler<B, ?> serialHandler;
         try {
@@ -70,18 +89,14 @@ public final class IOManager {
         if (buffer == null) {
             return null;
         }
-        Object2ObjectMap<Class<?>, IIOHandler<?, ?>> map = handlers.get(handlerType);
-        if (map == null) {
+        ClassValue<IIOHandler<?, ?>> lookup = lookups.get(handlerType);
+        if (lookup == null) {
             throw new SerializationException("Unknown handler type '" + handlerType.getName() + "'");
         }
-        IIOHandler<?, ?> handler = map.get(valueType);
+        IIOHandler<?, ?> handler = lookup.get(valueType);
         if (handler == null) {
-            handler = map.entrySet().stream().filter(entry -> entry.getKey().isAssignableFrom(valueType)).findFirst()
-                .map(entry -> entry.getValue()).orElse(null);
-            if (handler == null) {
-                throw new SerializationException("Failed to find handler of type '" + handlerType.getName()
-                    + "' in order to serialize data of type '" + valueType.getName() + "'.");
-            }
+            throw new SerializationException("Failed to find handler of type '" + handlerType.getName()
+                + "' in order to serialize data of type '" + valueType.getName() + "'.");
         }
         SerializationHandler<B, ?> serialHandler;
         try {
@@ -12,6 +12,7 @@ import org.jboss.forge.roaster.model.source.ParameterSource;
 
 import me.lauriichan.maven.sourcemod.api.ISourceTransformer;
 import me.lauriichan.snowframe.signal.ISignalHandler;
+import me.lauriichan.snowframe.signal.SignalBatch;
 import me.lauriichan.snowframe.signal.SignalContainer;
 import me.lauriichan.snowframe.signal.SignalContext;
 import me.lauriichan.snowframe.signal.SignalHandler;
@@ -36,6 +37,9 @@ public final class SignalHandlerTransformer implements ISourceTransformer {
             public SignalContainer newContainer() {
                 return new SignalContainer(this, new SignalReceiver[] {
             """);
+        // Single signal receivers are called by the generated container instead of through method references
+        StringBuilder dispatchBuilder = new StringBuilder();
+        final String handlerThis = clazz.getName() + ".this.";
         int amount = 0;
         for (final MethodSource<JavaClassSource> method : clazz.getMethods()) {
             if (!method.hasAnnotation(SignalHandler.class)
@@ -47,16 +51,26 @@ public final class SignalHandlerTransformer implements ISourceTransformer {
                 continue;
             }
             Type<JavaClassSource> paramType = params.get(0).getType();
-            if (!paramType.isType(SignalContext.class) || !paramType.isParameterized()) {
+            boolean batch = paramType.isType(SignalBatch.class);
+            if (!(batch || paramType.isType(SignalContext.class)) || !paramType.isParameterized()) {
                 continue;
             }
             Type<JavaClassSource> packetType = paramType.getTypeArguments().get(0);
-            if (amount++ != 0) {
+            String packetName = packetType.getQualifiedName();
+            boolean allowCancelled = Boolean.parseBoolean(method.getAnnotation(SignalHandler.class).getLiteralValue());
+            if (amount != 0) {
                 containerBuilder.append(",");
             }
-            containerBuilder.append("\n\t\tnew SignalReceiver<>(").append(packetType.getQualifiedName()).append(".class, this::")
-                .append(method.getName()).append(", ")
-                .append(Boolean.parseBoolean(method.getAnnotation(SignalHandler.class).getLiteralValue())).append(')');
+            if (batch) {
+                containerBuilder.append("\n\t\tnew SignalReceiver<>(").append(packetName).append(".class, null, this::")
+                    .append(method.getName()).append(", ").append(allowCancelled).append(')');
+            } else {
+                containerBuilder.append("\n\t\tSignalReceiver.direct(").append(packetName).append(".class, ").append(allowCancelled)
+                    .append(')');
+                dispatchBuilder.append("\n\t\t\tcase ").append(amount).append(" -> ").append(handlerThis).append(method.getName())
+                    .append("((SignalContext<").append(packetName).append(">) context);");
+            }
+            amount++;
         }
         if (amount == 0) {
             return;
@@ -67,12 +81,32 @@ public final class SignalHandlerTransformer implements ISourceTransformer {
         importClass(clazz, SignalContainer.class);
         importClass(clazz, SignalReceiver.class);
 
-        containerBuilder.append('\n').append("""
-                });
+        if (dispatchBuilder.isEmpty()) {
+            containerBuilder.append('\n').append("""
+                    });
+                }
+                """);
+        } else {
+            importClass(clazz, SignalContext.class);
+            // The switch replaces the method reference of each receiver, the container itself is still called through
+            // SignalReceiver like any other container
+            containerBuilder.append('\n').append("\t}) {").append("""
+
+                    @SuppressWarnings("unchecked")
+                    @Override
+                    protected void dispatch(int index, SignalContext<?> context) throws Throwable {
+                        switch (index) {""").append(dispatchBuilder).append("""
+
+                        default -> super.dispatch(index, context);
+                        }
+                    }
+                };
             }
             """);
+        }
         clazz.addMethod(containerBuilder.toString());
         containerBuilder = null;
+        dispatchBuilder = null;
     }
 
 }
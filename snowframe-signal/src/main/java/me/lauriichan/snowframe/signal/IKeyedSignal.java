@@ -0,0 +1,13 @@
+package me.lauriichan.snowframe.signal;
+
+public interface IKeyedSignal extends ISignal {
+
+    /**
+     * The key that is used to route this signal to receivers that are only
+     * interested in specific keys, like a entity, channel or player
+     * 
+     * @return the routing key
+     */
+    Object key();
+
+}
@@ -0,0 +1,17 @@
+package me.lauriichan.snowframe.signal;
+
+@FunctionalInterface
+public interface ISignalBatchFunction<S extends ISignal> {
+
+    /**
+     * Receives a whole batch of signals at once, signals which were cancelled by a
+     * previous receiver are still part of the batch and have to be checked with
+     * {@link SignalBatch#isCancelled(int)} if required
+     * 
+     * @param  batch     the batch of signals
+     * 
+     * @throws Throwable if the handler fails
+     */
+    void onSignals(SignalBatch<S> batch) throws Throwable;
+
+}
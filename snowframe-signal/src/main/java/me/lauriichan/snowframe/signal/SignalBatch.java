@@ -0,0 +1,85 @@
+package me.lauriichan.snowframe.signal;
+
+import java.util.List;
+
+public final class SignalBatch<S extends ISignal> {
+
+    private final Class<S> signalType;
+    private final boolean cancelable;
+
+    private final List<S> signals;
+    private final boolean[] cancelled;
+
+    private final SignalContext<S> context;
+
+    SignalBatch(final Class<S> signalType, final List<S> signals) {
+        this.signalType = signalType;
+        this.cancelable = SignalContext.isCancelable(signalType);
+        this.signals = signals;
+        this.cancelled = cancelable ? new boolean[signals.size()] : null;
+        this.context = null;
+    }
+
+    SignalBatch(final SignalContext<S> context) {
+        this.signalType = context.signalType();
+        this.cancelable = context.isCancelable();
+        this.signals = List.of(context.signal());
+        this.cancelled = null;
+        this.context = context;
+    }
+
+    public Class<S> signalType() {
+        return signalType;
+    }
+
+    public boolean isCancelable() {
+        return cancelable;
+    }
+
+    public int size() {
+        return signals.size();
+    }
+
+    public S signal(final int index) {
+        return signals.get(index);
+    }
+
+    public List<S> signals() {
+        return signals;
+    }
+
+    public boolean isCancelled(final int index) {
+        if (context != null) {
+            return context.isCancelled();
+        }
+        return cancelled != null && cancelled[index];
+    }
+
+    public void setCancelled(final int index, final boolean cancelled) {
+        if (!cancelable) {
+            return;
+        }
+        if (context != null) {
+            context.setCancelled(cancelled);
+            return;
+        }
+        this.cancelled[index] = cancelled;
+    }
+
+    public int cancelledAmount() {
+        if (context != null) {
+            return context.isCancelled() ? 1 : 0;
+        }
+        if (cancelled == null) {
+            return 0;
+        }
+        int amount = 0;
+        for (boolean state : cancelled) {
+            if (state) {
+                amount++;
+            }
+        }
+        return amount;
+    }
+
+}
@@ -0,0 +1,186 @@
+package me.lauriichan.snowframe.signal;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded ring buffer that allows any amount of threads to publish signals
+ * which are then dispatched by a single consumer thread, for example a tick or
+ * render thread, through {@link #drain()}.
+ */
+public final class SignalBus {
+
+    public static enum Backpressure {
+
+        /**
+         * Drops the signal if the buffer is full
+         */
+        DROP,
+        /**
+         * Busy spins until the consumer freed a slot
+         */
+        SPIN,
+        /**
+         * Yields the producer thread until the consumer freed a slot
+         */
+        YIELD,
+        /**
+         * Parks the producer thread for a short time until the consumer freed a slot
+         */
+        PARK;
+
+        private static final long PARK_NANOS = 50_000L;
+
+        final boolean idle() {
+            switch (this) {
+            case DROP:
+                return false;
+            case SPIN:
+                Thread.onSpinWait();
+                return true;
+            case YIELD:
+                Thread.yield();
+                return true;
+            case PARK:
+                LockSupport.parkNanos(PARK_NANOS);
+                return !Thread.currentThread().isInterrupted();
+            default:
+                return false;
+            }
+        }
+
+    }
+
+    private final SignalManager manager;
+    private final Backpressure backpressure;
+
+    private final int mask;
+    private final AtomicReferenceArray<ISignal> signals;
+    private final AtomicLongArray sequences;
+
+    private final AtomicLong tail = new AtomicLong();
+    private long head = 0;
+
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+
+    public SignalBus(final SignalManager manager, final int capacity) {
+        this(manager, capacity, Backpressure.PARK);
+    }
+
+    public SignalBus(final SignalManager manager, final int capacity, final Backpressure backpressure) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity has to be a power of two that is at least 2");
+        }
+        this.manager = Objects.requireNonNull(manager);
+        this.backpressure = Objects.requireNonNull(backpressure);
+        this.mask = capacity - 1;
+        this.signals = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int index = 0; index < capacity; index++) {
+            sequences.set(index, index);
+        }
+    }
+
+    public SignalManager manager() {
+        return manager;
+    }
+
+    public Backpressure backpressure() {
+        return backpressure;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    public int size() {
+        return (int) Math.max(0, Math.min(tail.get() - head, capacity()));
+    }
+
+    /*
+     * Producer
+     */
+
+    /**
+     * Publishes a signal onto the bus
+     *
+     * @param  signal the signal to publish
+     *
+     * @return        {@code true} if the signal was published or {@code false} if
+     *                    it was dropped because the buffer is full
+     */
+    public boolean publish(final ISignal signal) {
+        Objects.requireNonNull(signal);
+        long position;
+        int index;
+        long difference;
+        while (true) {
+            position = tail.get();
+            index = (int) (position & mask);
+            difference = sequences.getAcquire(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                continue;
+            }
+            if (difference < 0) {
+                // Buffer is full, the consumer still has to read this slot
+                if (!backpressure.idle()) {
+                    return false;
+                }
+            }
+        }
+        signals.setPlain(index, signal);
+        sequences.setRelease(index, position + 1);
+        return true;
+    }
+
+    /*
+     * Consumer
+     */
+
+    public int drain() {
+        return drain(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Dispatches published signals through the signal manager until the bus is
+     * empty or the limit is reached. Only one thread may drain at a time.
+     *
+     * @param  limit the maximum amount of signals to dispatch
+     *
+     * @return       the amount of dispatched signals
+     */
+    public int drain(final int limit) {
+        if (!draining.compareAndSet(false, true)) {
+            throw new IllegalStateException("SignalBus is already drained by another thread");
+        }
+        try {
+            int amount = 0;
+            long position = head;
+            int index;
+            ISignal signal;
+            while (amount < limit) {
+                index = (int) (position & mask);
+                if (sequences.getAcquire(index) != position + 1) {
+                    break;
+                }
+                signal = signals.getPlain(index);
+                signals.setPlain(index, null);
+                sequences.setRelease(index, position + mask + 1);
+                head = ++position;
+                amount++;
+                manager.call(signal);
+            }
+            return amount;
+        } finally {
+            draining.set(false);
+        }
+    }
+
+}
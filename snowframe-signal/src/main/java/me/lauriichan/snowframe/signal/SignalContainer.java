@@ -4,7 +4,7 @@ import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import it.unimi.dsi.fastutil.objects.ObjectList;
 import it.unimi.dsi.fastutil.objects.ObjectLists;
 
-public final class SignalContainer {
+public class SignalContainer {
 
     private final ISignalHandler handler;
 
@@ -15,7 +15,9 @@ public final class SignalContainer {
     public SignalContainer(final ISignalHandler handler, final SignalReceiver<?>[] receivers) {
         final ObjectArrayList<SignalReceiver<?>> receiverList = new ObjectArrayList<>();
         boolean allowsCancelled = false;
-        for (final SignalReceiver<?> receiver : receivers) {
+        for (int index = 0; index < receivers.length; index++) {
+            final SignalReceiver<?> receiver = receivers[index];
+            receiver.bind(this, index);
             receiverList.add(receiver);
             if (receiver.allowsCancelled()) {
                 allowsCancelled = true;
@@ -26,26 +28,31 @@ public final class SignalContainer {
         this.allowsCancelled = allowsCancelled;
     }
 
-    public ISignalHandler handler() {
+    public final ISignalHandler handler() {
         return handler;
     }
 
-    public boolean allowsCancelled() {
+    public final boolean allowsCancelled() {
         return allowsCancelled;
     }
 
-    final void handleSignal(SignalManager manager, SignalContext<?> context) {
-        for (final SignalReceiver<?> receiver : receivers) {
-            if (!receiver.isSignalSuitable(context.signalType()) || context.isCancelled() && !receiver.allowsCancelled()) {
-                continue;
-            }
-            handle(manager, receiver, context);
-        }
+    public final ObjectList<SignalReceiver<?>> receivers() {
+        return receivers;
     }
 
-    @SuppressWarnings("unchecked")
-    private <S extends ISignal> void handle(SignalManager manager, SignalReceiver<S> receiver, SignalContext<?> context) {
-        receiver.handle(manager, (SignalContext<S>) context);
+    /**
+     * Dispatches a signal to the direct receiver at the given index, containers
+     * generated for handlers with {@link SignalHandler} methods override this to
+     * call the handler method of each direct receiver through a switch on the
+     * index instead of a signal function
+     * 
+     * @param  index     the index of the receiver in this container
+     * @param  context   the signal context
+     * 
+     * @throws Throwable if the handler fails
+     */
+    protected void dispatch(int index, SignalContext<?> context) throws Throwable {
+        throw new IllegalStateException("No direct receiver at index " + index);
     }
 
 }
@@ -2,11 +2,28 @@ package me.lauriichan.snowframe.signal;
 
 import me.lauriichan.snowframe.util.attribute.Attributable;
 
+/**
+ * The context a signal is dispatched with. Contexts of batch dispatches and of
+ * pooled calls (see {@link SignalManager#poolContexts(boolean)}) are reused for
+ * other signals, so receivers must not keep a reference to a context after they
+ * returned.
+ */
 public final class SignalContext<S extends ISignal> extends Attributable {
 
-    private final S signal;
-    private final Class<S> signalType;
-    private final boolean cancelable;
+    private static final ClassValue<Boolean> CANCELABLE = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return ICancelable.class.isAssignableFrom(type);
+        }
+    };
+
+    static boolean isCancelable(Class<?> signalType) {
+        return CANCELABLE.get(signalType);
+    }
+
+    private S signal;
+    private Class<S> signalType;
+    private boolean cancelable;
     
     private volatile boolean cancelled = false;
     
@@ -14,7 +31,34 @@ public final class SignalContext<S extends ISignal> extends Attributable {
     public SignalContext(S signal) {
         this.signal = signal;
         this.signalType = (Class<S>) signal.getClass();
-        this.cancelable = ICancelable.class.isAssignableFrom(signalType);
+        this.cancelable = isCancelable(signalType);
+    }
+
+    SignalContext(Class<S> signalType) {
+        this.signalType = signalType;
+        this.cancelable = isCancelable(signalType);
+    }
+
+    SignalContext() {}
+
+    final void reset(S signal, boolean cancelled) {
+        this.signal = signal;
+        this.cancelled = cancelable && cancelled;
+        attrClear();
+    }
+
+    @SuppressWarnings("unchecked")
+    final void init(S signal) {
+        this.signal = signal;
+        this.signalType = (Class<S>) signal.getClass();
+        this.cancelable = isCancelable(signalType);
+        this.cancelled = false;
+    }
+
+    final void clear() {
+        this.signal = null;
+        this.signalType = null;
+        attrClear();
     }
 
     public final S signal() {
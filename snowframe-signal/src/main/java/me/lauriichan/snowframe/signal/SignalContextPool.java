@@ -0,0 +1,40 @@
+package me.lauriichan.snowframe.signal;
+
+final class SignalContextPool {
+
+    private static final int MAX_SIZE = 16;
+
+    // Each thread has its own stack as signals can be called from within receivers
+    private static final ThreadLocal<SignalContextPool> POOL = ThreadLocal.withInitial(SignalContextPool::new);
+
+    static SignalContextPool get() {
+        return POOL.get();
+    }
+
+    private final SignalContext<?>[] contexts = new SignalContext<?>[MAX_SIZE];
+    private int size = 0;
+
+    private SignalContextPool() {}
+
+    @SuppressWarnings("unchecked")
+    <S extends ISignal> SignalContext<S> acquire(final S signal) {
+        SignalContext<S> context;
+        if (size == 0) {
+            context = new SignalContext<>();
+        } else {
+            context = (SignalContext<S>) contexts[--size];
+            contexts[size] = null;
+        }
+        context.init(signal);
+        return context;
+    }
+
+    void release(final SignalContext<?> context) {
+        context.clear();
+        if (size == MAX_SIZE) {
+            return;
+        }
+        contexts[size++] = context;
+    }
+
+}
@@ -0,0 +1,120 @@
+package me.lauriichan.snowframe.signal;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import it.unimi.dsi.fastutil.objects.Object2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+
+final class SignalDispatchTable {
+
+    static final class Route {
+
+        private final SignalReceiver<?>[] receivers;
+
+        private final SignalReceiver<?>[] unkeyed;
+        private final Object2ObjectOpenHashMap<Object, SignalReceiver<?>[]> keyed;
+
+        private Route(final SignalReceiver<?>[] receivers, final SignalReceiver<?>[] unkeyed,
+            final Object2ObjectOpenHashMap<Object, SignalReceiver<?>[]> keyed) {
+            this.receivers = receivers;
+            this.unkeyed = unkeyed;
+            this.keyed = keyed;
+        }
+
+        SignalReceiver<?>[] receivers() {
+            return receivers;
+        }
+
+        boolean isKeyed() {
+            return keyed != null;
+        }
+
+        SignalReceiver<?>[] receivers(final ISignal signal) {
+            if (keyed == null) {
+                return receivers;
+            }
+            if (signal instanceof IKeyedSignal keyedSignal) {
+                return keyed.getOrDefault(keyedSignal.key(), unkeyed);
+            }
+            return unkeyed;
+        }
+
+    }
+
+    static final SignalDispatchTable EMPTY = new SignalDispatchTable(new SignalContainer[0]);
+
+    private static final SignalReceiver<?>[] NO_RECEIVERS = new SignalReceiver<?>[0];
+    private static final Route NO_ROUTE = new Route(NO_RECEIVERS, NO_RECEIVERS, null);
+
+    private final SignalContainer[] containers;
+    private final ConcurrentHashMap<Class<?>, Route> routes = new ConcurrentHashMap<>();
+
+    SignalDispatchTable(final SignalContainer[] containers) {
+        this.containers = containers;
+    }
+
+    SignalContainer[] containers() {
+        return containers;
+    }
+
+    boolean contains(final SignalContainer container) {
+        for (final SignalContainer current : containers) {
+            if (current == container) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    Route route(final Class<? extends ISignal> signalType) {
+        Route route = routes.get(signalType);
+        if (route != null) {
+            return route;
+        }
+        return routes.computeIfAbsent(signalType, this::build);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Route build(final Class<?> signalType) {
+        final ObjectArrayList<SignalReceiver<?>> list = new ObjectArrayList<>();
+        boolean hasKeyed = false;
+        for (final SignalContainer container : containers) {
+            for (final SignalReceiver<?> receiver : container.receivers()) {
+                if (receiver.isSignalSuitable((Class<? extends ISignal>) signalType)) {
+                    list.add(receiver);
+                    hasKeyed |= receiver.isKeyed();
+                }
+            }
+        }
+        if (list.isEmpty()) {
+            return NO_ROUTE;
+        }
+        final SignalReceiver<?>[] receivers = list.toArray(SignalReceiver<?>[]::new);
+        if (!hasKeyed) {
+            return new Route(receivers, receivers, null);
+        }
+        // Every key gets its own ordered array of the unkeyed receivers plus the ones subscribed to that key
+        final ObjectArrayList<SignalReceiver<?>> unkeyedList = new ObjectArrayList<>();
+        final Object2ObjectOpenHashMap<Object, ObjectArrayList<SignalReceiver<?>>> keyedLists = new Object2ObjectOpenHashMap<>();
+        for (final SignalReceiver<?> receiver : receivers) {
+            if (!receiver.isKeyed()) {
+                unkeyedList.add(receiver);
+                for (final ObjectArrayList<SignalReceiver<?>> keyedList : keyedLists.values()) {
+                    keyedList.add(receiver);
+                }
+                continue;
+            }
+            for (final Object key : receiver.keys()) {
+                keyedLists.computeIfAbsent(key, ignore -> new ObjectArrayList<>(unkeyedList)).add(receiver);
+            }
+        }
+        final Object2ObjectOpenHashMap<Object, SignalReceiver<?>[]> keyed = new Object2ObjectOpenHashMap<>(keyedLists.size());
+        for (final Object2ObjectMap.Entry<Object, ObjectArrayList<SignalReceiver<?>>> entry : keyedLists.object2ObjectEntrySet()) {
+            keyed.put(entry.getKey(), entry.getValue().toArray(SignalReceiver<?>[]::new));
+        }
+        keyed.trim();
+        return new Route(receivers, unkeyedList.isEmpty() ? NO_RECEIVERS : unkeyedList.toArray(SignalReceiver<?>[]::new), keyed);
+    }
+
+}
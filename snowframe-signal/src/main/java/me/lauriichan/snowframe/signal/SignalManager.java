@@ -1,19 +1,41 @@
 package me.lauriichan.snowframe.signal;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
-import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import me.lauriichan.laylib.logger.ISimpleLogger;
 
 public final class SignalManager {
 
-    private final ObjectArrayList<SignalContainer> containers = new ObjectArrayList<>();
-    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private static final Executor DEFAULT_ASYNC_EXECUTOR = command -> Thread.ofVirtual().name("SignalDispatch").start(command);
+
+    private static final VarHandle DISPATCH_TABLE;
+
+    static {
+        try {
+            DISPATCH_TABLE = MethodHandles.lookup().findVarHandle(SignalManager.class, "dispatchTable", SignalDispatchTable.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // Immutable snapshot of all containers, only ever replaced through compare and set
+    private volatile SignalDispatchTable dispatchTable = SignalDispatchTable.EMPTY;
 
     private final ISimpleLogger logger;
 
+    private volatile Executor asyncExecutor = DEFAULT_ASYNC_EXECUTOR;
+
+    private volatile boolean poolContexts = false;
+
+    private volatile SignalMetrics metrics;
+
     public SignalManager(ISimpleLogger logger) {
         this.logger = logger;
     }
@@ -22,77 +44,340 @@ public final class SignalManager {
         return logger;
     }
 
+    public final void asyncExecutor(Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor == null ? DEFAULT_ASYNC_EXECUTOR : asyncExecutor;
+    }
+
+    public final Executor asyncExecutor() {
+        return asyncExecutor;
+    }
+
+    /**
+     * Enables reuse of signal contexts for synchronous calls without a context
+     * setup. A pooled context is handed to the receivers and recycled as soon as
+     * the call returned, so only enable this if no receiver keeps a reference to
+     * the context after it returned. Calls with a context setup always use a new
+     * context as the setup exposes it to the caller.
+     * 
+     * @param poolContexts if contexts should be pooled
+     */
+    public final void poolContexts(boolean poolContexts) {
+        this.poolContexts = poolContexts;
+    }
+
+    public final boolean poolContexts() {
+        return poolContexts;
+    }
+
+    /**
+     * Enables or disables recording of dispatch metrics, while disabled the
+     * dispatch only pays for a single null check per receiver
+     * 
+     * @param enabled if metrics should be recorded
+     */
+    public final void metricsEnabled(boolean enabled) {
+        if (enabled == (metrics != null)) {
+            return;
+        }
+        metrics = enabled ? new SignalMetrics() : null;
+    }
+
+    public final boolean metricsEnabled() {
+        return metrics != null;
+    }
+
+    public final SignalMetrics metrics() {
+        return metrics;
+    }
+
     public final SignalContainer register(ISignalHandler handler) {
-        lock.readLock().lock();
-        try {
-            for (int index = 0; index < containers.size(); index++) {
-                final SignalContainer container = containers.get(index);
-                if (Objects.equals(container.handler(), handler)) {
-                    return container;
+        SignalContainer container = null;
+        SignalDispatchTable current, next;
+        do {
+            current = dispatchTable;
+            SignalContainer[] containers = current.containers();
+            for (int index = 0; index < containers.length; index++) {
+                if (Objects.equals(containers[index].handler(), handler)) {
+                    return containers[index];
                 }
             }
-        } finally {
-            lock.readLock().unlock();
-        }
-        SignalContainer container = handler.newContainer();
-        lock.writeLock().lock();
-        try {
-            containers.add(container);
-        } finally {
-            lock.writeLock().unlock();
-        }
+            if (container == null) {
+                container = handler.newContainer();
+            }
+            SignalContainer[] newContainers = Arrays.copyOf(containers, containers.length + 1);
+            newContainers[containers.length] = container;
+            next = new SignalDispatchTable(newContainers);
+        } while (!DISPATCH_TABLE.compareAndSet(this, current, next));
         return container;
     }
 
     public final boolean unregister(final SignalContainer container) {
-        lock.readLock().lock();
-        try {
-            if (!containers.contains(container)) {
+        SignalContainer removed;
+        SignalDispatchTable current, next;
+        do {
+            current = dispatchTable;
+            SignalContainer[] containers = current.containers();
+            int found = -1;
+            for (int index = 0; index < containers.length; index++) {
+                if (Objects.equals(containers[index], container)) {
+                    found = index;
+                    break;
+                }
+            }
+            if (found == -1) {
                 return false;
             }
-        } finally {
-            lock.readLock().unlock();
-        }
-        lock.writeLock().lock();
-        try {
-            return containers.remove(container);
-        } finally {
-            lock.writeLock().unlock();
+            removed = containers[found];
+            if (containers.length == 1) {
+                next = SignalDispatchTable.EMPTY;
+                continue;
+            }
+            SignalContainer[] newContainers = new SignalContainer[containers.length - 1];
+            System.arraycopy(containers, 0, newContainers, 0, found);
+            System.arraycopy(containers, found + 1, newContainers, found, newContainers.length - found);
+            next = new SignalDispatchTable(newContainers);
+        } while (!DISPATCH_TABLE.compareAndSet(this, current, next));
+        SignalMetrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.remove(removed);
         }
+        return true;
     }
 
     public final <S extends ISignal> boolean call(S signal) {
-        SignalContext<S> context = new SignalContext<>(signal);
-        call(context);
-        return context.isCancelled();
+        return call(signal, null);
     }
 
+    /**
+     * Calls all receivers of the signal synchronously
+     * 
+     * @param  <S>          the signal type
+     * @param  signal       the signal
+     * @param  contextSetup prepares the context before it is dispatched, the
+     *                          context is never pooled if a setup is given
+     * 
+     * @return              {@code true} if the signal ended up cancelled
+     */
     public final <S extends ISignal> boolean call(S signal, Consumer<SignalContext<S>> contextSetup) {
-        SignalContext<S> context = new SignalContext<>(signal);
-        if (contextSetup != null) {
-            contextSetup.accept(context);
+        if (!poolContexts || contextSetup != null) {
+            SignalContext<S> context = new SignalContext<>(signal);
+            if (contextSetup != null) {
+                contextSetup.accept(context);
+            }
+            call(context);
+            return context.isCancelled();
+        }
+        SignalContextPool pool = SignalContextPool.get();
+        SignalContext<S> context = pool.acquire(Objects.requireNonNull(signal));
+        try {
+            call(context);
+            return context.isCancelled();
+        } finally {
+            pool.release(context);
         }
-        call(context);
-        return context.isCancelled();
     }
 
     public final <S extends ISignal> void call(SignalContext<S> context) {
-        SignalContainer[] containers;
-        lock.readLock().lock();
-        try {
-            if (this.containers.isEmpty()) {
-                return;
+        SignalReceiver<?>[] receivers = dispatchTable.route(context.signalType()).receivers(context.signal());
+        SignalMetrics metrics = this.metrics;
+        long start = metrics == null ? 0L : System.nanoTime();
+        int exceptions = 0;
+        for (int index = 0; index < receivers.length; index++) {
+            if (context.isCancelled() && !receivers[index].allowsCancelled()) {
+                continue;
             }
-            containers = this.containers.toArray(new SignalContainer[this.containers.size()]);
-        } finally {
-            lock.readLock().unlock();
+            if (!handle(receivers[index], context, metrics)) {
+                exceptions++;
+            }
+        }
+        if (metrics != null) {
+            metrics.type(context.signalType()).record(System.nanoTime() - start, exceptions, context.isCancelled());
+        }
+    }
+
+    /*
+     * Batch
+     */
+
+    public final <S extends ISignal> int callBatch(Class<S> signalType, S[] signals) {
+        return callBatch(signalType, signals, 0, signals.length);
+    }
+
+    public final <S extends ISignal> int callBatch(Class<S> signalType, S[] signals, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, signals.length);
+        return callBatch(signalType, Arrays.asList(signals).subList(offset, offset + length));
+    }
+
+    /**
+     * Calls all receivers of the given signal type with every signal of the batch.
+     * Receivers are only resolved once and are called one after another with the
+     * whole batch, receivers that support batches get the batch in a single call
+     * while all others are called once per signal with a reused context.<br>
+     * As the context is reused context attributes don't carry over between
+     * receivers.<br>
+     * Signals are dispatched as their concrete class just like a single call, if
+     * the batch contains different classes it is split into consecutive runs of
+     * the same class which are dispatched one after another.
+     * 
+     * @param  <S>        the signal type
+     * @param  signalType the common type of all signals
+     * @param  signals    the signals to dispatch
+     * 
+     * @return            the amount of signals that ended up cancelled
+     */
+    public final <S extends ISignal> int callBatch(Class<S> signalType, List<S> signals) {
+        int size = signals.size();
+        if (size == 0) {
+            return 0;
+        }
+        Class<?> runType = checkBatchType(signalType, signals.get(0));
+        int runStart = 0;
+        int cancelledAmount = 0;
+        Class<?> type;
+        for (int index = 1; index < size; index++) {
+            type = checkBatchType(signalType, signals.get(index));
+            if (type == runType) {
+                continue;
+            }
+            cancelledAmount += dispatchBatch(runType, signals.subList(runStart, index));
+            runType = type;
+            runStart = index;
         }
-        for (SignalContainer current : containers) {
-            if (context.isCancelled() && !current.allowsCancelled()) {
+        return cancelledAmount + dispatchBatch(runType, runStart == 0 ? signals : signals.subList(runStart, size));
+    }
+
+    private static Class<?> checkBatchType(Class<?> signalType, ISignal signal) {
+        if (!signalType.isInstance(signal)) {
+            throw new IllegalArgumentException(
+                "Signal of type '" + signal.getClass().getName() + "' is not a '" + signalType.getName() + "'");
+        }
+        return signal.getClass();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <S extends ISignal> int dispatchBatch(Class<?> runType, List<? extends ISignal> runSignals) {
+        Class<S> signalType = (Class<S>) runType;
+        List<S> signals = (List<S>) runSignals;
+        int size = signals.size();
+        SignalDispatchTable.Route route = dispatchTable.route(signalType);
+        SignalReceiver<?>[] receivers = route.receivers();
+        if (receivers.length == 0) {
+            return 0;
+        }
+        boolean keyed = route.isKeyed();
+        SignalMetrics metrics = this.metrics;
+        long start = metrics == null ? 0L : System.nanoTime();
+        int exceptions = 0;
+        SignalBatch<S> batch = new SignalBatch<>(signalType, signals);
+        SignalContext<S> context = null;
+        for (int index = 0; index < receivers.length; index++) {
+            SignalReceiver<?> receiver = receivers[index];
+            if (receiver.supportsBatch()) {
+                if (!handleBatch(receiver, batch, metrics)) {
+                    exceptions++;
+                }
                 continue;
             }
-            current.handleSignal(this, context);
+            if (context == null) {
+                context = new SignalContext<>(signalType);
+            }
+            boolean cancelled;
+            S signal;
+            for (int signalIndex = 0; signalIndex < size; signalIndex++) {
+                cancelled = batch.isCancelled(signalIndex);
+                if (cancelled && !receiver.allowsCancelled()) {
+                    continue;
+                }
+                signal = signals.get(signalIndex);
+                if (keyed && !receiver.acceptsKey(signal)) {
+                    continue;
+                }
+                context.reset(signal, cancelled);
+                if (!handle(receiver, context, metrics)) {
+                    exceptions++;
+                }
+                batch.setCancelled(signalIndex, context.isCancelled());
+            }
+        }
+        int cancelledAmount = batch.cancelledAmount();
+        if (metrics != null) {
+            // The whole batch counts as one call of the signal type
+            metrics.type(signalType).record(System.nanoTime() - start, exceptions, cancelledAmount != 0);
         }
+        return cancelledAmount;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <S extends ISignal> boolean handleBatch(SignalReceiver<?> receiver, SignalBatch<S> batch, SignalMetrics metrics) {
+        if (metrics == null) {
+            return ((SignalReceiver<S>) receiver).handleBatch(this, batch);
+        }
+        int cancelledAmount = batch.cancelledAmount();
+        long start = System.nanoTime();
+        boolean success = ((SignalReceiver<S>) receiver).handleBatch(this, batch);
+        long nanos = System.nanoTime() - start;
+        receiverCounter(metrics, receiver).record(nanos, success ? 0 : 1, batch.cancelledAmount() > cancelledAmount);
+        return success;
+    }
+
+    /*
+     * Async
+     */
+
+    public final <S extends ISignal> CompletableFuture<SignalContext<S>> callAsync(S signal) {
+        return callAsync(new SignalContext<>(signal));
+    }
+
+    public final <S extends ISignal> CompletableFuture<SignalContext<S>> callAsync(S signal, Consumer<SignalContext<S>> contextSetup) {
+        SignalContext<S> context = new SignalContext<>(signal);
+        if (contextSetup != null) {
+            contextSetup.accept(context);
+        }
+        return callAsync(context);
+    }
+
+    public final <S extends ISignal> CompletableFuture<SignalContext<S>> callAsync(SignalContext<S> context) {
+        // All receivers of one signal run in order on the same task, just like a synchronous call
+        return CompletableFuture.supplyAsync(() -> {
+            call(context);
+            return context;
+        }, asyncExecutor);
+    }
+
+    public final <S extends ISignal> void post(S signal) {
+        Objects.requireNonNull(signal);
+        asyncExecutor.execute(() -> call(new SignalContext<>(signal)));
+    }
+
+    private <S extends ISignal> boolean handle(SignalReceiver<?> receiver, SignalContext<S> context, SignalMetrics metrics) {
+        if (metrics == null) {
+            return handle(receiver, context);
+        }
+        boolean wasCancelled = context.isCancelled();
+        long start = System.nanoTime();
+        boolean success = handle(receiver, context);
+        receiverCounter(metrics, receiver).record(System.nanoTime() - start, success ? 0 : 1, !wasCancelled && context.isCancelled());
+        return success;
+    }
+
+    private SignalMetrics.Counter receiverCounter(SignalMetrics metrics, SignalReceiver<?> receiver) {
+        SignalMetrics.Counter counter = metrics.trackedReceiver(receiver);
+        if (counter != null) {
+            return counter;
+        }
+        counter = metrics.receiver(receiver);
+        // A call that was still in flight while the container was unregistered must not track its receivers again,
+        // checking after tracking means that either this check or the unregister removes the receiver
+        SignalContainer container = receiver.container();
+        if (container != null && !dispatchTable.contains(container)) {
+            metrics.remove(receiver);
+        }
+        return counter;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <S extends ISignal> boolean handle(SignalReceiver<?> receiver, SignalContext<S> context) {
+        return ((SignalReceiver<S>) receiver).handle(this, context);
     }
 
 }
@@ -0,0 +1,113 @@
+package me.lauriichan.snowframe.signal;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+
+/**
+ * Dispatch metrics of a {@link SignalManager}, receivers are only tracked as
+ * long as their container is registered.
+ */
+public final class SignalMetrics {
+
+    public static record TypeSnapshot(Class<?> signalType, long calls, long cancellations, long exceptions, long totalNanos,
+        long maxNanos) {}
+
+    public static record ReceiverSnapshot(SignalReceiver<?> receiver, Class<?> signalType, Class<?> handlerType, long invocations,
+        long cancellations, long exceptions, long totalNanos, long maxNanos) {}
+
+    public static record Snapshot(Map<Class<?>, TypeSnapshot> types, List<ReceiverSnapshot> receivers) {}
+
+    static final class Counter {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder cancellations = new LongAdder();
+        private final LongAdder exceptions = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+        void record(final long nanos, final int exceptions, final boolean cancelled) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            if (exceptions != 0) {
+                this.exceptions.add(exceptions);
+            }
+            if (cancelled) {
+                cancellations.increment();
+            }
+        }
+
+        private void reset() {
+            count.reset();
+            cancellations.reset();
+            exceptions.reset();
+            totalNanos.reset();
+            maxNanos.reset();
+        }
+
+    }
+
+    private final ConcurrentHashMap<Class<?>, Counter> types = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<SignalReceiver<?>, Counter> receivers = new ConcurrentHashMap<>();
+
+    Counter type(final Class<?> signalType) {
+        Counter counter = types.get(signalType);
+        if (counter != null) {
+            return counter;
+        }
+        return types.computeIfAbsent(signalType, ignore -> new Counter());
+    }
+
+    Counter receiver(final SignalReceiver<?> receiver) {
+        Counter counter = receivers.get(receiver);
+        if (counter != null) {
+            return counter;
+        }
+        return receivers.computeIfAbsent(receiver, ignore -> new Counter());
+    }
+
+    Counter trackedReceiver(final SignalReceiver<?> receiver) {
+        return receivers.get(receiver);
+    }
+
+    void remove(final SignalReceiver<?> receiver) {
+        receivers.remove(receiver);
+    }
+
+    void remove(final SignalContainer container) {
+        for (final SignalReceiver<?> receiver : container.receivers()) {
+            receivers.remove(receiver);
+        }
+    }
+
+    public void clear() {
+        types.clear();
+        receivers.clear();
+    }
+
+    public void reset() {
+        types.values().forEach(Counter::reset);
+        receivers.values().forEach(Counter::reset);
+    }
+
+    public Snapshot snapshot() {
+        Object2ObjectOpenHashMap<Class<?>, TypeSnapshot> typeSnapshots = new Object2ObjectOpenHashMap<>(types.size());
+        types.forEach((type, counter) -> typeSnapshots.put(type, new TypeSnapshot(type, counter.count.sum(),
+            counter.cancellations.sum(), counter.exceptions.sum(), counter.totalNanos.sum(), counter.maxNanos.get())));
+        ObjectArrayList<ReceiverSnapshot> receiverSnapshots = new ObjectArrayList<>(receivers.size());
+        receivers.forEach((receiver, counter) -> {
+            SignalContainer container = receiver.container();
+            receiverSnapshots.add(new ReceiverSnapshot(receiver, receiver.signalType(),
+                container == null ? null : container.handler().getClass(), counter.count.sum(), counter.cancellations.sum(),
+                counter.exceptions.sum(), counter.totalNanos.sum(), counter.maxNanos.get()));
+        });
+        return new Snapshot(Map.copyOf(typeSnapshots), List.copyOf(receiverSnapshots));
+    }
+
+}
@@ -1,20 +1,109 @@
 package me.lauriichan.snowframe.signal;
 
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ObjectSet;
+import it.unimi.dsi.fastutil.objects.ObjectSets;
+
 public final class SignalReceiver<S extends ISignal> {
 
+    /**
+     * Creates a receiver that only receives keyed signals with one of the given
+     * keys, the signals are routed through a key index so that unrelated keys
+     * don't cost anything
+     * 
+     * @param  <S>            the signal type
+     * @param  signalType     the signal type, has to be a {@link IKeyedSignal}
+     * @param  receiver       the signal function
+     * @param  allowCancelled if the receiver receives cancelled signals
+     * @param  keys           the keys the receiver is subscribed to
+     * 
+     * @return                the receiver
+     */
+    public static <S extends IKeyedSignal> SignalReceiver<S> keyed(Class<S> signalType, ISignalFunction<S> receiver,
+        boolean allowCancelled, Object... keys) {
+        if (keys.length == 0) {
+            throw new IllegalArgumentException("At least one key is required");
+        }
+        return new SignalReceiver<>(signalType, receiver, null, allowCancelled, ObjectSets.unmodifiable(new ObjectOpenHashSet<>(keys)));
+    }
+
+    /**
+     * Creates a receiver that is dispatched by its container through
+     * {@link SignalContainer#dispatch(int, SignalContext)} instead of a signal
+     * function, this is used by generated containers to call the handler methods
+     * directly
+     * 
+     * @param  <S>            the signal type
+     * @param  signalType     the signal type
+     * @param  allowCancelled if the receiver receives cancelled signals
+     * 
+     * @return                the receiver
+     */
+    public static <S extends ISignal> SignalReceiver<S> direct(Class<S> signalType, boolean allowCancelled) {
+        return new SignalReceiver<>(signalType, allowCancelled);
+    }
+
     private final Class<S> signalType;
     private final ISignalFunction<S> receiver;
+    private final ISignalBatchFunction<S> batchReceiver;
 
     private final boolean allowCancelled;
+    private final boolean direct;
+
+    private final ObjectSet<Object> keys;
+
+    private SignalContainer container;
+    private int index;
+
+    private SignalReceiver(Class<S> signalType, boolean allowCancelled) {
+        this.signalType = signalType;
+        this.receiver = null;
+        this.batchReceiver = null;
+        this.allowCancelled = allowCancelled;
+        this.direct = true;
+        this.keys = null;
+    }
 
     public SignalReceiver(Class<S> signalType, ISignalFunction<S> receiver) {
-        this(signalType, receiver, true);
+        this(signalType, receiver, null, true);
     }
 
     public SignalReceiver(Class<S> signalType, ISignalFunction<S> receiver, boolean allowCancelled) {
+        this(signalType, receiver, null, allowCancelled);
+    }
+
+    public SignalReceiver(Class<S> signalType, ISignalFunction<S> receiver, ISignalBatchFunction<S> batchReceiver,
+        boolean allowCancelled) {
+        this(signalType, receiver, batchReceiver, allowCancelled, null);
+    }
+
+    private SignalReceiver(Class<S> signalType, ISignalFunction<S> receiver, ISignalBatchFunction<S> batchReceiver,
+        boolean allowCancelled, ObjectSet<Object> keys) {
+        if (receiver == null && batchReceiver == null) {
+            throw new IllegalArgumentException("Either a receiver or a batch receiver is required");
+        }
         this.signalType = signalType;
         this.receiver = receiver;
+        this.batchReceiver = batchReceiver;
         this.allowCancelled = allowCancelled;
+        this.direct = false;
+        this.keys = keys;
+    }
+
+    final void bind(SignalContainer container, int index) {
+        if (direct && this.container != null) {
+            throw new IllegalStateException("Direct receiver is already bound to a container");
+        }
+        this.container = container;
+        this.index = index;
+    }
+
+    public final Class<S> signalType() {
+        return signalType;
+    }
+
+    public final SignalContainer container() {
+        return container;
     }
 
     public final boolean isSignalSuitable(Class<? extends ISignal> signalType) {
@@ -25,11 +114,48 @@ public final class SignalReceiver<S extends ISignal> {
         return allowCancelled;
     }
 
-    final void handle(SignalManager manager, SignalContext<S> context) {
+    public final boolean supportsBatch() {
+        return batchReceiver != null;
+    }
+
+    public final boolean isKeyed() {
+        return keys != null;
+    }
+
+    public final ObjectSet<Object> keys() {
+        return keys == null ? ObjectSets.emptySet() : keys;
+    }
+
+    public final boolean acceptsKey(ISignal signal) {
+        if (keys == null) {
+            return true;
+        }
+        return signal instanceof IKeyedSignal keyedSignal && keys.contains(keyedSignal.key());
+    }
+
+    final boolean handle(SignalManager manager, SignalContext<S> context) {
         try {
-            receiver.onSignal(context);
+            if (receiver != null) {
+                receiver.onSignal(context);
+            } else if (direct) {
+                container.dispatch(index, context);
+            } else {
+                batchReceiver.onSignals(new SignalBatch<>(context));
+            }
+            return true;
         } catch (Throwable e) {
             manager.logger().error("Failed to run signal handler", e);
+            return false;
+        }
+    }
+
+    final boolean handleBatch(SignalManager manager, SignalBatch<S> batch) {
+        try {
+            batchReceiver.onSignals(batch);
+            return true;
+        } catch (Throwable e) {
+            manager.logger().error("Failed to run signal batch handler", e);
+            return false;
         }
     }
 
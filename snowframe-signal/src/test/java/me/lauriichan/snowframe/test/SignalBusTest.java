@@ -0,0 +1,166 @@
+package me.lauriichan.snowframe.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import me.lauriichan.snowframe.signal.ISignal;
+import me.lauriichan.snowframe.signal.ISignalHandler;
+import me.lauriichan.snowframe.signal.SignalBus;
+import me.lauriichan.snowframe.signal.SignalBus.Backpressure;
+import me.lauriichan.snowframe.signal.SignalContainer;
+import me.lauriichan.snowframe.signal.SignalManager;
+import me.lauriichan.snowframe.signal.SignalReceiver;
+import me.lauriichan.snowframe.util.logger.SysOutSimpleLogger;
+
+public class SignalBusTest {
+
+    private static record TestSignal(int value) implements ISignal {}
+
+    private static final class Recorder implements ISignalHandler {
+
+        // Only the draining thread records signals
+        private final IntArrayList values = new IntArrayList();
+
+        @Override
+        public SignalContainer newContainer() {
+            return new SignalContainer(this, new SignalReceiver[] {
+                new SignalReceiver<>(TestSignal.class, context -> values.add(context.signal().value()))
+            });
+        }
+
+    }
+
+    private static SignalManager manager(Recorder recorder) {
+        SignalManager manager = new SignalManager(SysOutSimpleLogger.INSTANCE);
+        manager.register(recorder);
+        return manager;
+    }
+
+    private static void assertInOrder(IntArrayList values, int amount) {
+        assertEquals(amount, values.size());
+        for (int i = 0; i < amount; i++) {
+            assertEquals(i, values.getInt(i));
+        }
+    }
+
+    @Test
+    public void testDropRejectsWhenFull() {
+        Recorder recorder = new Recorder();
+        SignalBus bus = new SignalBus(manager(recorder), 4, Backpressure.DROP);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(bus.publish(new TestSignal(i)));
+        }
+        assertFalse(bus.publish(new TestSignal(4)));
+        assertEquals(4, bus.size());
+        assertEquals(4, bus.drain());
+        assertInOrder(recorder.values, 4);
+        assertTrue(bus.publish(new TestSignal(4)));
+        assertEquals(1, bus.drain());
+        assertInOrder(recorder.values, 5);
+    }
+
+    @Test
+    public void testDrainLimit() {
+        Recorder recorder = new Recorder();
+        SignalBus bus = new SignalBus(manager(recorder), 8, Backpressure.DROP);
+        for (int i = 0; i < 6; i++) {
+            bus.publish(new TestSignal(i));
+        }
+        assertEquals(4, bus.drain(4));
+        assertEquals(2, bus.size());
+        assertEquals(2, bus.drain(4));
+        assertEquals(0, bus.drain());
+        assertInOrder(recorder.values, 6);
+    }
+
+    @TestFactory
+    public Stream<DynamicTest> testBlockingBackpressureDeliversAll() {
+        return Arrays.stream(new Backpressure[] {
+            Backpressure.SPIN,
+            Backpressure.YIELD,
+            Backpressure.PARK
+        }).map(backpressure -> DynamicTest.dynamicTest("Test Backpressure: " + backpressure, () -> {
+            int amount = 10_000;
+            Recorder recorder = new Recorder();
+            SignalBus bus = new SignalBus(manager(recorder), 16, backpressure);
+            AtomicBoolean allPublished = new AtomicBoolean(true);
+            Thread producer = Thread.ofPlatform().daemon().start(() -> {
+                for (int i = 0; i < amount; i++) {
+                    if (!bus.publish(new TestSignal(i))) {
+                        allPublished.set(false);
+                    }
+                }
+            });
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (recorder.values.size() < amount) {
+                bus.drain();
+                assertTrue(System.nanoTime() < deadline, "Only " + recorder.values.size() + " signals were received");
+            }
+            producer.join();
+            assertTrue(allPublished.get());
+            assertInOrder(recorder.values, amount);
+        }));
+    }
+
+    @Test
+    public void testProducersLoseNothing() throws InterruptedException {
+        int producers = 4;
+        int signals = 5_000;
+        Recorder recorder = new Recorder();
+        SignalBus bus = new SignalBus(manager(recorder), 64, Backpressure.YIELD);
+        Thread[] threads = new Thread[producers];
+        for (int i = 0; i < producers; i++) {
+            int offset = i * signals;
+            threads[i] = Thread.ofPlatform().daemon().start(() -> {
+                for (int signal = 0; signal < signals; signal++) {
+                    bus.publish(new TestSignal(offset + signal));
+                }
+            });
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (recorder.values.size() < producers * signals) {
+            bus.drain();
+            assertTrue(System.nanoTime() < deadline, "Only " + recorder.values.size() + " signals were received");
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, bus.drain());
+        // Every producer keeps its own order and no signal is received twice
+        int[] next = new int[producers];
+        for (int i = 0; i < recorder.values.size(); i++) {
+            int value = recorder.values.getInt(i);
+            int producer = value / signals;
+            assertEquals(producer * signals + next[producer]++, value);
+        }
+        for (int i = 0; i < producers; i++) {
+            assertEquals(signals, next[i]);
+        }
+    }
+
+    @Test
+    public void testInterruptedParkGivesUp() throws InterruptedException {
+        Recorder recorder = new Recorder();
+        SignalBus bus = new SignalBus(manager(recorder), 2, Backpressure.PARK);
+        assertTrue(bus.publish(new TestSignal(0)));
+        assertTrue(bus.publish(new TestSignal(1)));
+        AtomicBoolean published = new AtomicBoolean(true);
+        Thread producer = Thread.ofPlatform().daemon().start(() -> published.set(bus.publish(new TestSignal(2))));
+        producer.interrupt();
+        producer.join(TimeUnit.SECONDS.toMillis(5));
+        assertFalse(producer.isAlive());
+        assertFalse(published.get());
+        assertEquals(2, bus.drain());
+        assertInOrder(recorder.values, 2);
+    }
+
+}
@@ -0,0 +1,186 @@
+package me.lauriichan.snowframe.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Supplier;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.jboss.forge.roaster.Roaster;
+import org.jboss.forge.roaster.model.source.JavaClassSource;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectLinkedOpenHashSet;
+import me.lauriichan.laylib.logger.ISimpleLogger;
+import me.lauriichan.snowframe.extension.IExtension;
+import me.lauriichan.snowframe.maven.SignalHandlerTransformer;
+import me.lauriichan.snowframe.signal.ICancelable;
+import me.lauriichan.snowframe.signal.ISignal;
+import me.lauriichan.snowframe.signal.ISignalHandler;
+import me.lauriichan.snowframe.signal.SignalContainer;
+import me.lauriichan.snowframe.signal.SignalManager;
+import me.lauriichan.snowframe.util.logger.SysOutSimpleLogger;
+
+public class SignalHandlerTransformerTest {
+
+    public static record TextSignal(String text) implements ISignal, ICancelable {}
+
+    private static final String DIRECT_HANDLER = """
+        package generated;
+
+        import java.util.List;
+        import java.util.function.Supplier;
+
+        import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+        import me.lauriichan.snowframe.signal.ISignalHandler;
+        import me.lauriichan.snowframe.signal.SignalBatch;
+        import me.lauriichan.snowframe.signal.SignalContext;
+        import me.lauriichan.snowframe.signal.SignalHandler;
+        import me.lauriichan.snowframe.test.SignalHandlerTransformerTest.TextSignal;
+
+        public class DirectHandler implements ISignalHandler, Supplier<List<String>> {
+
+            private final ObjectArrayList<String> calls = new ObjectArrayList<>();
+
+            @SignalHandler
+            public void onText(SignalContext<TextSignal> context) {
+                calls.add("text:" + context.signal().text());
+                if (context.signal().text().equals("stop")) {
+                    context.setCancelled(true);
+                }
+            }
+
+            @SignalHandler(true)
+            public void onLate(SignalContext<TextSignal> context) {
+                calls.add("late:" + context.isCancelled());
+            }
+
+            @SignalHandler
+            public void onBatch(SignalBatch<TextSignal> batch) {
+                calls.add("batch:" + batch.size());
+            }
+
+            @Override
+            public List<String> get() {
+                return calls;
+            }
+
+        }
+        """;
+
+    private static final String BATCH_HANDLER = """
+        package generated;
+
+        import java.util.List;
+        import java.util.function.Supplier;
+
+        import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+        import me.lauriichan.snowframe.signal.ISignalHandler;
+        import me.lauriichan.snowframe.signal.SignalBatch;
+        import me.lauriichan.snowframe.signal.SignalHandler;
+        import me.lauriichan.snowframe.test.SignalHandlerTransformerTest.TextSignal;
+
+        public class BatchHandler implements ISignalHandler, Supplier<List<String>> {
+
+            private final ObjectArrayList<String> calls = new ObjectArrayList<>();
+
+            @SignalHandler
+            public void onBatch(SignalBatch<TextSignal> batch) {
+                calls.add("batch:" + batch.size());
+            }
+
+            @Override
+            public List<String> get() {
+                return calls;
+            }
+
+        }
+        """;
+
+    private static String location(final Class<?> type) throws URISyntaxException {
+        return new File(type.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+    }
+
+    private static ISignalHandler generate(final Path directory, final String name, final String source) throws Exception {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Assumptions.assumeTrue(compiler != null, "No java compiler available");
+        final JavaClassSource clazz = Roaster.parse(JavaClassSource.class, source);
+        final SignalHandlerTransformer transformer = new SignalHandlerTransformer();
+        assertTrue(transformer.canTransform(clazz));
+        transformer.transform(clazz);
+
+        final Path sourceFile = directory.resolve(name + ".java");
+        Files.writeString(sourceFile, clazz.toString());
+        final Path output = Files.createDirectories(directory.resolve("classes"));
+        final ObjectLinkedOpenHashSet<String> classPath = new ObjectLinkedOpenHashSet<>();
+        for (final Class<?> type : new Class<?>[] {
+            SignalContainer.class,
+            IExtension.class,
+            ObjectArrayList.class,
+            ISimpleLogger.class,
+            SignalHandlerTransformerTest.class
+        }) {
+            classPath.add(location(type));
+        }
+        final StringWriter errors = new StringWriter();
+        final boolean compiled = compiler.getTask(errors, null, null,
+            List.of("-proc:none", "-d", output.toString(), "-cp", String.join(File.pathSeparator, classPath)), null,
+            compiler.getStandardFileManager(null, null, null).getJavaFileObjects(sourceFile.toFile())).call();
+        assertTrue(compiled, () -> errors + "\n" + clazz);
+
+        final URLClassLoader loader = new URLClassLoader(new URL[] {
+            output.toUri().toURL()
+        }, SignalHandlerTransformerTest.class.getClassLoader());
+        return (ISignalHandler) loader.loadClass("generated." + name).getConstructor().newInstance();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> calls(final ISignalHandler handler) {
+        return ((Supplier<List<String>>) handler).get();
+    }
+
+    @Test
+    public void testGeneratedContainerCallsHandlerMethods(@TempDir final Path directory) throws Exception {
+        final ISignalHandler handler = generate(directory, "DirectHandler", DIRECT_HANDLER);
+        final SignalManager manager = new SignalManager(SysOutSimpleLogger.INSTANCE);
+        final SignalContainer container = manager.register(handler);
+        // Direct receivers are dispatched by a generated subclass
+        assertNotSame(SignalContainer.class, container.getClass());
+        assertEquals(3, container.receivers().size());
+
+        assertFalse(manager.call(new TextSignal("go")));
+        assertEquals(List.of("text:go", "late:false", "batch:1"), calls(handler));
+
+        calls(handler).clear();
+        assertTrue(manager.call(new TextSignal("stop")));
+        assertEquals(List.of("text:stop", "late:true"), calls(handler));
+
+        calls(handler).clear();
+        assertEquals(0, manager.callBatch(TextSignal.class, List.of(new TextSignal("a"), new TextSignal("b"))));
+        assertEquals(List.of("text:a", "text:b", "late:false", "late:false", "batch:2"), calls(handler));
+    }
+
+    @Test
+    public void testBatchOnlyHandlerUsesPlainContainer(@TempDir final Path directory) throws Exception {
+        final ISignalHandler handler = generate(directory, "BatchHandler", BATCH_HANDLER);
+        final SignalManager manager = new SignalManager(SysOutSimpleLogger.INSTANCE);
+        final SignalContainer container = manager.register(handler);
+        assertSame(SignalContainer.class, container.getClass());
+
+        manager.callBatch(TextSignal.class, List.of(new TextSignal("a"), new TextSignal("b"), new TextSignal("c")));
+        assertEquals(List.of("batch:3"), calls(handler));
+    }
+
+}
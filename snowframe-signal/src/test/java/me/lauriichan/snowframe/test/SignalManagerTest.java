@@ -0,0 +1,388 @@
+package me.lauriichan.snowframe.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import me.lauriichan.snowframe.signal.ICancelable;
+import me.lauriichan.snowframe.signal.IKeyedSignal;
+import me.lauriichan.snowframe.signal.ISignal;
+import me.lauriichan.snowframe.signal.ISignalHandler;
+import me.lauriichan.snowframe.signal.SignalContainer;
+import me.lauriichan.snowframe.signal.SignalContext;
+import me.lauriichan.snowframe.signal.SignalManager;
+import me.lauriichan.snowframe.signal.SignalReceiver;
+import me.lauriichan.snowframe.util.logger.SysOutSimpleLogger;
+
+public class SignalManagerTest {
+
+    private static class TextSignal implements ISignal, ICancelable {
+
+        private final String text;
+
+        private TextSignal(final String text) {
+            this.text = text;
+        }
+
+        public String text() {
+            return text;
+        }
+
+    }
+
+    private static final class LoudSignal extends TextSignal {
+
+        private LoudSignal(final String text) {
+            super(text);
+        }
+
+    }
+
+    private static record KeyedSignal(Object key, String text) implements IKeyedSignal {}
+
+    private static final class Handler implements ISignalHandler {
+
+        private final SignalReceiver<?>[] receivers;
+
+        private Handler(final SignalReceiver<?>... receivers) {
+            this.receivers = receivers;
+        }
+
+        @Override
+        public SignalContainer newContainer() {
+            return new SignalContainer(this, receivers);
+        }
+
+    }
+
+    private static SignalManager manager() {
+        return new SignalManager(SysOutSimpleLogger.INSTANCE);
+    }
+
+    private static SignalReceiver<TextSignal> recording(final List<String> calls, final String name) {
+        return new SignalReceiver<>(TextSignal.class, context -> calls.add(name + ':' + context.signal().text()), false);
+    }
+
+    /*
+     * Routing
+     */
+
+    @Test
+    public void testRoutesFollowRegistrations() {
+        final SignalManager manager = manager();
+        final ObjectArrayList<String> calls = new ObjectArrayList<>();
+        assertFalse(manager.call(new TextSignal("none")));
+
+        final SignalContainer first = manager.register(new Handler(recording(calls, "first")));
+        manager.call(new TextSignal("a"));
+        // The route of the signal type was built by the previous call and has to be rebuilt for the new receiver
+        final SignalContainer second = manager.register(new Handler(recording(calls, "second"),
+            new SignalReceiver<>(LoudSignal.class, context -> calls.add("loud:" + context.signal().text()), false)));
+        manager.call(new TextSignal("b"));
+        // Signals are routed by their concrete class to every receiver of a super type
+        manager.call(new LoudSignal("c"));
+        assertEquals(List.of("first:a", "first:b", "second:b", "first:c", "second:c", "loud:c"), calls);
+
+        calls.clear();
+        assertTrue(manager.unregister(first));
+        assertFalse(manager.unregister(first));
+        manager.call(new TextSignal("d"));
+        manager.call(new LoudSignal("e"));
+        assertEquals(List.of("second:d", "second:e", "loud:e"), calls);
+
+        calls.clear();
+        assertTrue(manager.unregister(second));
+        manager.call(new LoudSignal("f"));
+        assertTrue(calls.isEmpty());
+    }
+
+    @Test
+    public void testRegisteringSameHandlerReturnsContainer() {
+        final SignalManager manager = manager();
+        final ObjectArrayList<String> calls = new ObjectArrayList<>();
+        final Handler handler = new Handler(recording(calls, "only"));
+        final SignalContainer container = manager.register(handler);
+        assertSame(container, manager.register(handler));
+        manager.call(new TextSignal("a"));
+        assertEquals(List.of("only:a"), calls);
+    }
+
+    @Test
+    public void testCancelledSignalsSkipReceivers() {
+        final SignalManager manager = manager();
+        final ObjectArrayList<String> calls = new ObjectArrayList<>();
+        manager.register(new Handler(new SignalReceiver<>(TextSignal.class, context -> context.setCancelled(true), false),
+            recording(calls, "skipped"), new SignalReceiver<>(TextSignal.class, context -> calls.add("late:" + context.isCancelled()), true)));
+        assertTrue(manager.call(new TextSignal("a")));
+        assertEquals(List.of("late:true"), calls);
+    }
+
+    /*
+     * Copy on write
+     */
+
+    @Test
+    public void testRegistrationDuringDispatchAppliesToNextCall() {
+        final SignalManager manager = manager();
+        final ObjectArrayList<String> calls = new ObjectArrayList<>();
+        final Handler late = new Handler(recording(calls, "late"));
+        final AtomicReference<SignalContainer> lateContainer = new AtomicReference<>();
+        manager.register(new Handler(new SignalReceiver<>(TextSignal.class, context -> {
+            calls.add("register:" + context.signal().text());
+            if (lateContainer.get() == null) {
+                lateContainer.set(manager.register(late));
+            } else {
+                manager.unregister(lateContainer.get());
+            }
+        }, false)));
+
+        // The running dispatch keeps the receivers it started with
+        manager.call(new TextSignal("a"));
+        assertEquals(List.of("register:a"), calls);
+
+        calls.clear();
+        manager.call(new TextSignal("b"));
+        // The unregistered receiver is still called by the dispatch that removed it
+        assertEquals(List.of("register:b", "late:b"), calls);
+
+        calls.clear();
+        manager.call(new TextSignal("c"));
+        assertEquals(List.of("register:c"), calls);
+    }
+
+    @Test
+    public void testConcurrentRegistrationsAreNotLost() throws InterruptedException {
+        final SignalManager manager = manager();
+        final AtomicInteger calls = new AtomicInteger();
+        final int threads = 4;
+        final int handlers = 250;
+        final CountDownLatch start = new CountDownLatch(1);
+        final Thread[] workers = new Thread[threads];
+        for (int thread = 0; thread < threads; thread++) {
+            workers[thread] = Thread.ofPlatform().daemon().start(() -> {
+                try {
+                    start.await();
+                } catch (final InterruptedException exception) {
+                    return;
+                }
+                for (int index = 0; index < handlers; index++) {
+                    final SignalContainer container = manager
+                        .register(new Handler(new SignalReceiver<>(TextSignal.class, context -> calls.incrementAndGet(), false)));
+                    // Every second handler is removed again while the others keep registering
+                    if (index % 2 == 0) {
+                        assertTrue(manager.unregister(container));
+                    }
+                }
+            });
+        }
+        start.countDown();
+        for (final Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+            assertFalse(worker.isAlive());
+        }
+        manager.call(new TextSignal("count"));
+        assertEquals(threads * handlers / 2, calls.get());
+    }
+
+    /*
+     * Async
+     */
+
+    @Test
+    public void testCallAsyncRunsReceiversOnExecutor() throws Exception {
+        final SignalManager manager = manager();
+        final AtomicInteger tasks = new AtomicInteger();
+        manager.asyncExecutor(command -> {
+            tasks.incrementAndGet();
+            Thread.ofPlatform().daemon().name("TestDispatch").start(command);
+        });
+        final ObjectArrayList<String> calls = new ObjectArrayList<>();
+        manager.register(new Handler(new SignalReceiver<>(TextSignal.class, context -> {
+            calls.add("first:" + Thread.currentThread().getName());
+            context.setCancelled(true);
+        }, false), new SignalReceiver<>(TextSignal.class, context -> calls.add("second:" + Thread.currentThread().getName()), true)));
+
+        final TextSignal signal = new TextSignal("a");
+        final CompletableFuture<SignalContext<TextSignal>> future = manager.callAsync(signal);
+        final SignalContext<TextSignal> context = future.get(10, TimeUnit.SECONDS);
+        assertSame(signal, context.signal());
+        assertTrue(context.isCancelled());
+        // All receivers of a signal share one task
+        assertEquals(1, tasks.get());
+        assertEquals(List.of("first:TestDispatch", "second:TestDispatch"), calls);
+
+        final SignalContext<TextSignal> setup = manager.callAsync(new TextSignal("b"), current -> current.setCancelled(true))
+            .get(10, TimeUnit.SECONDS);
+        assertTrue(setup.isCancelled());
+        assertEquals(2, tasks.get());
+        assertEquals(List.of("first:TestDispatch", "second:TestDispatch", "second:TestDispatch"), calls);
+    }
+
+    @Test
+    public void testPostDispatchesOnExecutor() throws InterruptedException {
+        final SignalManager manager = manager();
+        final CountDownLatch received = new CountDownLatch(2);
+        final AtomicReference<Thread> receiver = new AtomicReference<>();
+        manager.register(new Handler(new SignalReceiver<>(TextSignal.class, context -> {
+            receiver.set(Thread.currentThread());
+            received.countDown();
+        }, false)));
+        manager.post(new TextSignal("a"));
+        manager.post(new TextSignal("b"));
+        assertTrue(received.await(10, TimeUnit.SECONDS));
+        assertNotSame(Thread.currentThread(), receiver.get());
+        assertThrows(NullPointerException.class, () -> manager.post(null));
+    }
+
+    /*
+     * Batch
+     */
+
+    @Test
+    public void testBatchMatchesSingleCalls() {
+        final SignalManager manager = manager();
+        final ObjectArrayList<String> calls = new ObjectArrayList<>();
+        manager.register(new Handler(new SignalReceiver<>(TextSignal.class, context -> {
+            calls.add("cancel:" + context.signal().text());
+            if (context.signal().text().startsWith("x")) {
+                context.setCancelled(true);
+            }
+        }, false), recording(calls, "skipped"), new SignalReceiver<>(TextSignal.class, null, batch -> {
+            calls.add("batch:" + batch.size() + ':' + batch.cancelledAmount());
+        }, true)));
+
+        assertEquals(2, manager.callBatch(TextSignal.class, List.of(new TextSignal("x1"), new TextSignal("a"), new TextSignal("x2"))));
+        // Receivers are called one after another, each with the whole batch
+        assertEquals(List.of("cancel:x1", "cancel:a", "cancel:x2", "skipped:a", "batch:3:2"), calls);
+        assertEquals(0, manager.callBatch(TextSignal.class, List.of()));
+    }
+
+    @Test
+    public void testBatchSplitsMixedClasses() {
+        final SignalManager manager = manager();
+        final ObjectArrayList<String> calls = new ObjectArrayList<>();
+        manager.register(new Handler(recording(calls, "text"),
+            new SignalReceiver<>(LoudSignal.class, context -> calls.add("loud:" + context.signal().text()), false)));
+
+        final TextSignal[] signals = {
+            new TextSignal("a"),
+            new TextSignal("b"),
+            new LoudSignal("C"),
+            new TextSignal("d")
+        };
+        assertEquals(0, manager.callBatch(TextSignal.class, signals));
+        // Every run of the same class is dispatched like a single call of that class
+        assertEquals(List.of("text:a", "text:b", "text:C", "loud:C", "text:d"), calls);
+
+        calls.clear();
+        assertEquals(0, manager.callBatch(TextSignal.class, signals, 1, 2));
+        assertEquals(List.of("text:b", "text:C", "loud:C"), calls);
+        assertThrows(IndexOutOfBoundsException.class, () -> manager.callBatch(TextSignal.class, signals, 3, 2));
+    }
+
+    @Test
+    @SuppressWarnings({
+        "rawtypes",
+        "unchecked"
+    })
+    public void testBatchRejectsForeignSignals() {
+        final SignalManager manager = manager();
+        manager.register(new Handler(recording(new ObjectArrayList<>(), "text")));
+        assertThrows(IllegalArgumentException.class,
+            () -> manager.callBatch((Class) LoudSignal.class, List.of(new LoudSignal("a"), new TextSignal("b"))));
+    }
+
+    /*
+     * Pooling
+     */
+
+    @Test
+    public void testPooledContextsAreReused() {
+        final SignalManager manager = manager();
+        final ObjectArrayList<SignalContext<?>> contexts = new ObjectArrayList<>();
+        final ObjectArrayList<String> nested = new ObjectArrayList<>();
+        manager.register(new Handler(new SignalReceiver<>(TextSignal.class, context -> {
+            contexts.add(context);
+            if (context.signal().text().equals("outer")) {
+                manager.call(new TextSignal("inner"));
+                // A nested call must not recycle the context of the running call
+                nested.add(context.signal().text());
+            }
+        }, false)));
+
+        manager.call(new TextSignal("a"));
+        manager.call(new TextSignal("b"));
+        assertNotSame(contexts.get(0), contexts.get(1));
+
+        contexts.clear();
+        manager.poolContexts(true);
+        manager.call(new TextSignal("a"));
+        manager.call(new TextSignal("b"));
+        assertSame(contexts.get(0), contexts.get(1));
+        // Released contexts don't keep the signal
+        assertNull(contexts.get(0).signal());
+
+        contexts.clear();
+        manager.call(new TextSignal("outer"));
+        assertEquals(2, contexts.size());
+        assertNotSame(contexts.get(0), contexts.get(1));
+        assertEquals(List.of("outer"), nested);
+    }
+
+    @Test
+    public void testContextSetupIsNeverPooled() {
+        final SignalManager manager = manager();
+        manager.poolContexts(true);
+        final ObjectArrayList<SignalContext<?>> contexts = new ObjectArrayList<>();
+        manager.register(new Handler(new SignalReceiver<>(TextSignal.class, contexts::add, true)));
+
+        final AtomicReference<SignalContext<TextSignal>> exposed = new AtomicReference<>();
+        assertTrue(manager.call(new TextSignal("a"), context -> {
+            exposed.set(context);
+            context.setCancelled(true);
+        }));
+        assertSame(exposed.get(), contexts.get(0));
+        manager.call(new TextSignal("b"));
+        manager.call(new TextSignal("c"));
+        // The exposed context keeps its signal and is never handed out again
+        assertEquals("a", exposed.get().signal().text());
+        assertNotSame(exposed.get(), contexts.get(1));
+        assertNotSame(exposed.get(), contexts.get(2));
+        assertSame(contexts.get(1), contexts.get(2));
+    }
+
+    /*
+     * Keyed routing
+     */
+
+    @Test
+    public void testKeyedReceiversOnlyGetTheirKeys() {
+        final SignalManager manager = manager();
+        final ObjectArrayList<String> calls = new ObjectArrayList<>();
+        manager.register(new Handler(
+            SignalReceiver.keyed(KeyedSignal.class, context -> calls.add("ab:" + context.signal().text()), false, "a", "b"),
+            new SignalReceiver<>(KeyedSignal.class, context -> calls.add("all:" + context.signal().text()), false),
+            SignalReceiver.keyed(KeyedSignal.class, context -> calls.add("b:" + context.signal().text()), false, "b")));
+        assertThrows(IllegalArgumentException.class, () -> SignalReceiver.keyed(KeyedSignal.class, context -> {}, false));
+
+        manager.call(new KeyedSignal("a", "1"));
+        manager.call(new KeyedSignal("b", "2"));
+        manager.call(new KeyedSignal("c", "3"));
+        // Keyed and unkeyed receivers keep their registration order
+        assertEquals(List.of("ab:1", "all:1", "ab:2", "all:2", "b:2", "all:3"), calls);
+
+        calls.clear();
+        assertEquals(0, manager.callBatch(KeyedSignal.class,
+            List.of(new KeyedSignal("a", "4"), new KeyedSignal("c", "5"), new KeyedSignal("b", "6"))));
+        assertEquals(List.of("ab:4", "ab:6", "all:4", "all:5", "all:6", "b:6"), calls);
+    }
+
+}
@@ -0,0 +1,96 @@
+package me.lauriichan.snowframe.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import me.lauriichan.snowframe.signal.ICancelable;
+import me.lauriichan.snowframe.signal.ISignal;
+import me.lauriichan.snowframe.signal.ISignalHandler;
+import me.lauriichan.snowframe.signal.SignalContainer;
+import me.lauriichan.snowframe.signal.SignalManager;
+import me.lauriichan.snowframe.signal.SignalMetrics.ReceiverSnapshot;
+import me.lauriichan.snowframe.signal.SignalMetrics.Snapshot;
+import me.lauriichan.snowframe.signal.SignalReceiver;
+import me.lauriichan.snowframe.util.logger.SysOutSimpleLogger;
+
+public class SignalMetricsTest {
+
+    private static record TestSignal(int value) implements ISignal, ICancelable {}
+
+    private static final class Handler implements ISignalHandler {
+
+        private final SignalReceiver<TestSignal> batch = new SignalReceiver<>(TestSignal.class, null, batch -> {
+            for (int index = 0; index < batch.size(); index++) {
+                if (batch.signal(index).value() % 2 == 0) {
+                    batch.setCancelled(index, true);
+                }
+            }
+        }, false);
+        private final SignalReceiver<TestSignal> single = new SignalReceiver<>(TestSignal.class, context -> {}, false);
+
+        @Override
+        public SignalContainer newContainer() {
+            return new SignalContainer(this, new SignalReceiver[] {
+                batch,
+                single
+            });
+        }
+
+    }
+
+    private static ReceiverSnapshot find(final Snapshot snapshot, final SignalReceiver<?> receiver) {
+        for (final ReceiverSnapshot receiverSnapshot : snapshot.receivers()) {
+            if (receiverSnapshot.receiver() == receiver) {
+                return receiverSnapshot;
+            }
+        }
+        return null;
+    }
+
+    private static List<TestSignal> signals() {
+        return List.of(new TestSignal(0), new TestSignal(1), new TestSignal(2), new TestSignal(3));
+    }
+
+    @Test
+    public void testBatchRecordsReceiverCancellations() {
+        final SignalManager manager = new SignalManager(SysOutSimpleLogger.INSTANCE);
+        manager.metricsEnabled(true);
+        final Handler handler = new Handler();
+        manager.register(handler);
+        assertEquals(2, manager.callBatch(TestSignal.class, signals()));
+
+        final Snapshot snapshot = manager.metrics().snapshot();
+        assertEquals(1, snapshot.types().get(TestSignal.class).calls());
+        assertEquals(1, snapshot.types().get(TestSignal.class).cancellations());
+        final ReceiverSnapshot batch = find(snapshot, handler.batch);
+        assertNotNull(batch);
+        assertEquals(1, batch.invocations());
+        assertEquals(1, batch.cancellations());
+        assertEquals(Handler.class, batch.handlerType());
+        // The single receiver only gets the signals that weren't cancelled
+        final ReceiverSnapshot single = find(snapshot, handler.single);
+        assertNotNull(single);
+        assertEquals(2, single.invocations());
+        assertEquals(0, single.cancellations());
+    }
+
+    @Test
+    public void testUnregisterDropsReceivers() {
+        final SignalManager manager = new SignalManager(SysOutSimpleLogger.INSTANCE);
+        manager.metricsEnabled(true);
+        final Handler handler = new Handler();
+        final SignalContainer container = manager.register(handler);
+        manager.call(new TestSignal(1));
+        assertEquals(2, manager.metrics().snapshot().receivers().size());
+
+        assertTrue(manager.unregister(container));
+        assertTrue(manager.metrics().snapshot().receivers().isEmpty());
+        manager.call(new TestSignal(1));
+        assertTrue(manager.metrics().snapshot().receivers().isEmpty());
+        assertEquals(2, manager.metrics().snapshot().types().get(TestSignal.class).calls());
+    }
+
+}